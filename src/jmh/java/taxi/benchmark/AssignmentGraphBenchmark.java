@@ -0,0 +1,71 @@
+package taxi.benchmark;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import taxi.dao.CarDao;
+import taxi.lib.Injector;
+import taxi.model.Car;
+import taxi.service.DriverCarIndex;
+
+/**
+ * cars_drivers lookups: the SQL that builds the car pages against the in-memory
+ * driver-to-car index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AssignmentGraphBenchmark {
+    @Param({"100", "2000"})
+    private int fleetSize;
+    private CarDao carDao;
+    private DriverCarIndex driverCarIndex;
+    private long driverId;
+    private long carId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        EmbeddedDatabase.start(fleetSize);
+        Injector injector = Injector.getInstance("taxi");
+        carDao = (CarDao) injector.getInstance(CarDao.class);
+        driverCarIndex = (DriverCarIndex) injector.getInstance(DriverCarIndex.class);
+        driverCarIndex.reload();
+        driverId = fleetSize / 2;
+        carId = fleetSize / 2;
+    }
+
+    @Benchmark
+    public List<Car> sqlCarsOfDriver() {
+        return carDao.getAllByDriver(driverId);
+    }
+
+    @Benchmark
+    public long[] sqlDriversOfCar() {
+        return carDao.get(carId).get().getDriverIds();
+    }
+
+    @Benchmark
+    public long[] indexCarsOfDriver() {
+        return driverCarIndex.getCarIds(driverId);
+    }
+
+    @Benchmark
+    public long[] indexDriversOfCar() {
+        return driverCarIndex.getDriverIds(carId);
+    }
+
+    @Benchmark
+    public long[] indexCoDrivers() {
+        return driverCarIndex.getCoDriverIds(driverId);
+    }
+}
@@ -0,0 +1,79 @@
+package taxi.benchmark;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import taxi.lib.Injector;
+import taxi.model.Driver;
+import taxi.service.DriverService;
+import taxi.util.PasswordHasher;
+
+/**
+ * Rows per second of {@code DriverService.createAll} compared to one {@code create}
+ * call per row, with passwords hashed at the configured cost as in a real import.
+ * {@code createAllHashed} imports the same rows with passwords hashed beforehand, which
+ * shows what the inserts alone cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BulkImportBenchmark {
+    private static final int ROWS = 100;
+    private DriverService driverService;
+    private long sequence;
+    private List<Driver> drivers;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        EmbeddedDatabase.start(100);
+        driverService = (DriverService) Injector.getInstance("taxi")
+                .getInstance(DriverService.class);
+        hash = PasswordHasher.hash("password");
+    }
+
+    @Setup(Level.Invocation)
+    public void newDrivers() {
+        drivers = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            long n = sequence++;
+            Driver driver = new Driver();
+            driver.setName("Imported " + n);
+            driver.setLicenseNumber("IMP-" + n);
+            driver.setLogin("imported" + n);
+            driver.setPassword("password" + n);
+            drivers.add(driver);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Driver> createAll() {
+        return driverService.createAll(drivers);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Driver> createAllHashed() {
+        drivers.forEach(driver -> driver.setPassword(hash));
+        return driverService.createAllHashed(drivers);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Driver> createOneByOne() {
+        drivers.forEach(driverService::create);
+        return drivers;
+    }
+}
@@ -0,0 +1,57 @@
+package taxi.benchmark;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import taxi.dao.CarDao;
+import taxi.dao.DriverDao;
+import taxi.lib.Injector;
+import taxi.model.Car;
+import taxi.model.Driver;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CarDaoBenchmark {
+    @Param({"100", "2000"})
+    private int fleetSize;
+    private CarDao carDao;
+    private DriverDao driverDao;
+
+    @Setup
+    public void setUp() throws SQLException, IOException {
+        EmbeddedDatabase.start(fleetSize);
+        Injector injector = Injector.getInstance("taxi");
+        carDao = (CarDao) injector.getInstance(CarDao.class);
+        driverDao = (DriverDao) injector.getInstance(DriverDao.class);
+    }
+
+    @Benchmark
+    public List<Car> getAll() {
+        return carDao.getAll();
+    }
+
+    @Benchmark
+    public List<Car> getAllByDriver() {
+        return carDao.getAllByDriver(randomId());
+    }
+
+    @Benchmark
+    public Driver findByLogin() {
+        return driverDao.findByLogin("driver" + randomId()).orElseThrow();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, fleetSize + 1);
+    }
+}
@@ -0,0 +1,56 @@
+package taxi.benchmark;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import taxi.lib.Injector;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.service.CarService;
+import taxi.service.DriverService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CarServiceBenchmark {
+    @Param({"100", "2000"})
+    private int fleetSize;
+    private CarService carService;
+    private Car car;
+    private Driver driver;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        EmbeddedDatabase.start(fleetSize);
+        Injector injector = Injector.getInstance("taxi");
+        carService = (CarService) injector.getInstance(CarService.class);
+        DriverService driverService = (DriverService) injector.getInstance(DriverService.class);
+        car = carService.get(1L);
+        driver = driverService.get((long) fleetSize / 2 + 1);
+    }
+
+    /**
+     * Takes the assigned driver off the car again so every invocation adds
+     * the driver to a car with the same number of drivers.
+     */
+    @TearDown(Level.Invocation)
+    public void unassign() {
+        carService.removeDriverFromCar(driver, car);
+    }
+
+    @Benchmark
+    public Car addDriverToCar() {
+        carService.addDriverToCar(driver, car);
+        return car;
+    }
+}
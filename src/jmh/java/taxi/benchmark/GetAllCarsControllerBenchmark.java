@@ -0,0 +1,49 @@
+package taxi.benchmark;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import taxi.controller.car.GetAllCarsController;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GetAllCarsControllerBenchmark {
+    @Param({"100", "2000"})
+    private int fleetSize;
+    private GetAllCarsController controller;
+
+    @Setup
+    public void setUp() throws SQLException, IOException {
+        EmbeddedDatabase.start(fleetSize);
+        controller = new GetAllCarsController();
+    }
+
+    @Benchmark
+    public Object firstPage() throws ServletException, IOException {
+        HttpServletRequest req = ServletStubs.request("/cars", Map.of());
+        controller.doGet(req, ServletStubs.response());
+        ServletStubs.await(req);
+        return req.getAttribute("cars");
+    }
+
+    @Benchmark
+    public Object filteredPage() throws ServletException, IOException {
+        HttpServletRequest req = ServletStubs.request("/cars",
+                Map.of("model", "Model1", "after", String.valueOf(fleetSize / 2)));
+        controller.doGet(req, ServletStubs.response());
+        ServletStubs.await(req);
+        return req.getAttribute("cars");
+    }
+}
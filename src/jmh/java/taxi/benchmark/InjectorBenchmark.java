@@ -0,0 +1,28 @@
+package taxi.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import taxi.lib.Injector;
+import taxi.service.CarService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InjectorBenchmark {
+    private final Injector injector = Injector.getInstance("taxi");
+
+    @Benchmark
+    public Injector getInjector() {
+        return Injector.getInstance("taxi");
+    }
+
+    @Benchmark
+    public Object getInstance() {
+        return injector.getInstance(CarService.class);
+    }
+}
@@ -0,0 +1,59 @@
+package taxi.benchmark;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import taxi.exception.AuthenticationException;
+import taxi.lib.Injector;
+import taxi.model.Driver;
+import taxi.service.AuthenticationService;
+import taxi.util.PasswordHasher;
+
+/**
+ * Sign-ins per second on one core for a range of {@code taxi.auth.pbkdf2.iterations}.
+ * The property is set before PasswordHasher is loaded, so every value needs its own
+ * fork ({@code -f 0} measures the first value only).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+public class LoginBenchmark {
+    private static final String LOGIN = "driver1";
+    private static final String PASSWORD = "password1";
+    private static final String CLIENT_ADDRESS = "127.0.0.1";
+    @Param({"10000", "100000", "310000"})
+    private int iterations;
+    private AuthenticationService authenticationService;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException, AuthenticationException {
+        System.setProperty("taxi.auth.pbkdf2.iterations", String.valueOf(iterations));
+        EmbeddedDatabase.start(100);
+        authenticationService = (AuthenticationService) Injector.getInstance("taxi")
+                .getInstance(AuthenticationService.class);
+        authenticationService.login(LOGIN, PASSWORD, CLIENT_ADDRESS);
+        hash = PasswordHasher.hash(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return PasswordHasher.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public Driver login() throws AuthenticationException {
+        return authenticationService.login(LOGIN, PASSWORD, CLIENT_ADDRESS);
+    }
+}
@@ -0,0 +1,73 @@
+package taxi.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.model.Manufacturer;
+
+/**
+ * Allocation and hashing cost of the entity models; ModelFootprintTest measures what a
+ * loaded fleet retains. {@link #containsCar()} hashes by value by default; run it again
+ * with {@code -jvmArgsAppend -Dtaxi.model.idEquality=true} to compare with id equality.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ModelFootprintBenchmark {
+    private static final int FLEET_SIZE = 2000;
+    private final List<Car> fleet = new ArrayList<>();
+    private Set<Car> fleetSet;
+    private long nextId = 1_000;
+    private int probe;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (int i = 0; i < FLEET_SIZE; i++) {
+            fleet.add(hydrateCar());
+        }
+        fleetSet = new HashSet<>(fleet);
+    }
+
+    @Benchmark
+    public Car hydrateCar() {
+        Manufacturer manufacturer = new Manufacturer();
+        manufacturer.setId(nextId++);
+        manufacturer.setName("Toyota");
+        manufacturer.setCountry("Japan");
+        Car car = new Car();
+        car.setId(nextId++);
+        car.setModel("Corolla");
+        car.setManufacturer(manufacturer);
+        ArrayList<Driver> drivers = new ArrayList<>();
+        for (int i = 0; i < EmbeddedDatabase.DRIVERS_PER_CAR; i++) {
+            Driver driver = new Driver();
+            driver.setId(nextId++);
+            driver.setName("Driver");
+            driver.setLicenseNumber("LN");
+            driver.setLogin("driver");
+            driver.setPassword("password");
+            drivers.add(driver);
+        }
+        drivers.trimToSize();
+        car.setDrivers(drivers);
+        return car;
+    }
+
+    @Benchmark
+    public boolean containsCar() {
+        probe = (probe + 1) % FLEET_SIZE;
+        return fleetSet.contains(fleet.get(probe));
+    }
+}
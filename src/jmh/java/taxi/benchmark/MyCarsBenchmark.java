@@ -0,0 +1,53 @@
+package taxi.benchmark;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import taxi.dao.CarDao;
+import taxi.lib.Injector;
+import taxi.model.Car;
+import taxi.service.CarService;
+
+/**
+ * The "my cars" page: the SQL join in CarDao against the driver-to-car index
+ * with the car cache in CarService.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MyCarsBenchmark {
+    @Param({"100", "2000"})
+    private int fleetSize;
+    private CarDao carDao;
+    private CarService carService;
+    private Long driverId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        EmbeddedDatabase.start(fleetSize);
+        Injector injector = Injector.getInstance("taxi");
+        carDao = (CarDao) injector.getInstance(CarDao.class);
+        carService = (CarService) injector.getInstance(CarService.class);
+        driverId = (long) fleetSize / 2;
+    }
+
+    @Benchmark
+    public List<Car> sqlJoin() {
+        return carDao.getAllByDriver(driverId);
+    }
+
+    @Benchmark
+    public List<Car> indexAndCache() {
+        return carService.getAllByDriver(driverId);
+    }
+}
@@ -0,0 +1,114 @@
+package taxi.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import javax.servlet.AsyncContext;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Minimal request and response stand-ins for driving controllers without a container.
+ * Forwards to JSPs are accepted and dropped, so a controller benchmark covers the
+ * controller, service and DAO work but not page rendering. Async requests finish
+ * when the controller dispatches or completes them; {@link #await} waits for that.
+ */
+public class ServletStubs {
+    private static final String ASYNC_DONE = ServletStubs.class.getName() + ".asyncDone";
+
+    private ServletStubs() {
+    }
+
+    public static HttpServletRequest request(String servletPath, Map<String, String> parameters) {
+        Map<String, Object> attributes = new HashMap<>();
+        RequestDispatcher dispatcher = (RequestDispatcher) Proxy.newProxyInstance(
+                RequestDispatcher.class.getClassLoader(),
+                new Class<?>[] {RequestDispatcher.class}, (proxy, method, args) -> null);
+        return (HttpServletRequest) Proxy.newProxyInstance(
+                HttpServletRequest.class.getClassLoader(),
+                new Class<?>[] {HttpServletRequest.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getParameter":
+                            return parameters.get((String) args[0]);
+                        case "getServletPath":
+                            return servletPath;
+                        case "getContextPath":
+                            return "";
+                        case "getMethod":
+                            return "GET";
+                        case "getAttribute":
+                            return attributes.get((String) args[0]);
+                        case "setAttribute":
+                            attributes.put((String) args[0], args[1]);
+                            return null;
+                        case "removeAttribute":
+                            attributes.remove((String) args[0]);
+                            return null;
+                        case "getRequestDispatcher":
+                            return dispatcher;
+                        case "startAsync":
+                            CompletableFuture<Void> done = new CompletableFuture<>();
+                            attributes.put(ASYNC_DONE, done);
+                            return asyncContext(done, args);
+                        default:
+                            return defaultValue(method.getReturnType());
+                    }
+                });
+    }
+
+    /**
+     * Waits until an async request started by the controller has been dispatched
+     * or completed; returns right away for synchronous requests.
+     */
+    public static void await(HttpServletRequest req) {
+        CompletableFuture<?> done = (CompletableFuture<?>) req.getAttribute(ASYNC_DONE);
+        if (done != null) {
+            done.join();
+        }
+    }
+
+    private static AsyncContext asyncContext(CompletableFuture<Void> done, Object[] args) {
+        return (AsyncContext) Proxy.newProxyInstance(AsyncContext.class.getClassLoader(),
+                new Class<?>[] {AsyncContext.class}, (proxy, method, methodArgs) -> {
+                    switch (method.getName()) {
+                        case "dispatch":
+                        case "complete":
+                            done.complete(null);
+                            return null;
+                        case "getResponse":
+                            return args[1];
+                        default:
+                            return defaultValue(method.getReturnType());
+                    }
+                });
+    }
+
+    public static HttpServletResponse response() {
+        PrintWriter writer = new PrintWriter(new ByteArrayOutputStream());
+        return (HttpServletResponse) Proxy.newProxyInstance(
+                HttpServletResponse.class.getClassLoader(),
+                new Class<?>[] {HttpServletResponse.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("getWriter")) {
+                        return writer;
+                    }
+                    return defaultValue(method.getReturnType());
+                });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+}
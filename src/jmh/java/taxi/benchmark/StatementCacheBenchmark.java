@@ -0,0 +1,61 @@
+package taxi.benchmark;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import taxi.dao.CarDao;
+import taxi.dao.DriverDao;
+import taxi.lib.Injector;
+import taxi.model.Car;
+import taxi.model.Driver;
+
+/**
+ * Short DAO calls with the pool's statement cache switched off (size 0) and on.
+ * JMH runs every parameter value in its own fork, so the pool is built with the
+ * cache size of the trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StatementCacheBenchmark {
+    @Param({"0", "64"})
+    private int statementCacheSize;
+    private CarDao carDao;
+    private DriverDao driverDao;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        System.setProperty("taxi.db.pool.statementCacheSize",
+                String.valueOf(statementCacheSize));
+        EmbeddedDatabase.start(100);
+        Injector injector = Injector.getInstance("taxi");
+        carDao = (CarDao) injector.getInstance(CarDao.class);
+        driverDao = (DriverDao) injector.getInstance(DriverDao.class);
+    }
+
+    @Benchmark
+    public Optional<Car> getCar() {
+        return carDao.get(42L);
+    }
+
+    @Benchmark
+    public Optional<Driver> findByLogin() {
+        return driverDao.findByLogin("driver42");
+    }
+
+    @Benchmark
+    public List<Car> getAllByDriver() {
+        return carDao.getAllByDriver(42L);
+    }
+}
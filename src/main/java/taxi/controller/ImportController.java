@@ -0,0 +1,201 @@
+package taxi.controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.MultipartConfig;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.exception.BatchProcessingException;
+import taxi.exception.DataProcessingException;
+import taxi.lib.Injector;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.model.Manufacturer;
+import taxi.service.CarService;
+import taxi.service.DriverService;
+import taxi.service.ManufacturerService;
+import taxi.util.CsvReader;
+import taxi.util.PasswordHasher;
+
+/**
+ * Bulk import of CSV files. Every file is imported in a single transaction: if any
+ * row is malformed or rejected by the database nothing is stored and the rejected
+ * rows are listed with their line numbers. Driver passwords are hashed unless the form's
+ * {@code hashed} box is checked, in which case every password must already be a stored
+ * PBKDF2 hash.
+ */
+@WebServlet(urlPatterns = {"/drivers/import", "/manufacturers/import", "/cars/import"})
+@MultipartConfig(maxFileSize = 64 * 1024 * 1024)
+public class ImportController extends HttpServlet {
+    private static final Logger logger = LogManager.getLogger(ImportController.class);
+    private static final Injector injector = Injector.getInstance("taxi");
+    private static final List<String> DRIVER_COLUMNS =
+            List.of("name", "license_number", "login", "password");
+    private static final List<String> MANUFACTURER_COLUMNS = List.of("name", "country");
+    private static final List<String> CAR_COLUMNS =
+            List.of("model", "manufacturer_id", "driver_ids");
+    private static final String DRIVER_IDS_SEPARATOR = ";";
+    private final DriverService driverService = (DriverService) injector
+            .getInstance(DriverService.class);
+    private final ManufacturerService manufacturerService = (ManufacturerService) injector
+            .getInstance(ManufacturerService.class);
+    private final CarService carService = (CarService) injector
+            .getInstance(CarService.class);
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        req.setAttribute("entity", entityOf(req));
+        req.setAttribute("columns", String.join(",", columnsOf(entityOf(req))));
+        req.getRequestDispatcher("/WEB-INF/views/import.jsp").forward(req, resp);
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        String entity = entityOf(req);
+        try (CsvReader csv = new CsvReader(new BufferedReader(new InputStreamReader(
+                req.getPart("file").getInputStream(), StandardCharsets.UTF_8)))) {
+            switch (entity) {
+                case "drivers":
+                    boolean hashed = req.getParameter("hashed") != null;
+                    importRecords(req, csv, DRIVER_COLUMNS,
+                            record -> parseDriver(record, hashed),
+                            hashed ? driverService::createAllHashed : driverService::createAll);
+                    break;
+                case "manufacturers":
+                    importRecords(req, csv, MANUFACTURER_COLUMNS, this::parseManufacturer,
+                            manufacturerService::createAll);
+                    break;
+                default:
+                    importRecords(req, csv, CAR_COLUMNS, this::parseCar,
+                            carService::createAll);
+            }
+        } catch (IOException e) {
+            req.setAttribute("errors", List.of("Can't read file: " + e.getMessage()));
+        }
+        doGet(req, resp);
+    }
+
+    private <T> void importRecords(HttpServletRequest req, CsvReader csv, List<String> columns,
+            Function<List<String>, T> parser, UnaryOperator<List<T>> createAll)
+            throws IOException {
+        List<T> elements = new ArrayList<>();
+        List<Long> lines = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        List<String> record;
+        while ((record = csv.readRecord()) != null) {
+            if (lines.isEmpty() && errors.isEmpty()
+                    && record.get(0).trim().equalsIgnoreCase(columns.get(0))) {
+                continue;
+            }
+            try {
+                elements.add(parser.apply(record));
+                lines.add(csv.getLineNumber());
+            } catch (IllegalArgumentException e) {
+                errors.add("Line " + csv.getLineNumber() + ": " + e.getMessage());
+            }
+        }
+        if (errors.isEmpty() && !elements.isEmpty()) {
+            try {
+                long start = System.nanoTime();
+                createAll.apply(elements);
+                logger.info("Imported {} rows in {} ms", elements.size(),
+                        (System.nanoTime() - start) / 1_000_000);
+                req.setAttribute("created", elements.size());
+            } catch (BatchProcessingException e) {
+                e.getRowErrors().forEach((row, message) ->
+                        errors.add("Line " + lines.get(row) + ": " + message));
+            } catch (DataProcessingException e) {
+                logger.error("Import of {} rows failed", elements.size(), e);
+                errors.add(e.getMessage());
+            }
+        }
+        req.setAttribute("errors", errors);
+    }
+
+    private Driver parseDriver(List<String> record, boolean hashed) {
+        requireFields(record, DRIVER_COLUMNS.size());
+        if (hashed && !PasswordHasher.isWellFormed(record.get(3))) {
+            throw new IllegalArgumentException("password is not a PBKDF2 hash");
+        }
+        Driver driver = new Driver();
+        driver.setName(record.get(0).trim());
+        driver.setLicenseNumber(record.get(1).trim());
+        driver.setLogin(record.get(2).trim());
+        driver.setPassword(record.get(3));
+        return driver;
+    }
+
+    private Manufacturer parseManufacturer(List<String> record) {
+        requireFields(record, MANUFACTURER_COLUMNS.size());
+        Manufacturer manufacturer = new Manufacturer();
+        manufacturer.setName(record.get(0).trim());
+        manufacturer.setCountry(record.get(1).trim());
+        return manufacturer;
+    }
+
+    private Car parseCar(List<String> record) {
+        requireFields(record, CAR_COLUMNS.size() - 1);
+        Manufacturer manufacturer = new Manufacturer();
+        manufacturer.setId(parseId(record.get(1)));
+        List<Driver> drivers = new ArrayList<>();
+        if (record.size() > 2 && !record.get(2).isBlank()) {
+            for (String driverId : record.get(2).split(DRIVER_IDS_SEPARATOR)) {
+                Driver driver = new Driver();
+                driver.setId(parseId(driverId));
+                drivers.add(driver);
+            }
+        }
+        Car car = new Car(record.get(0).trim(), manufacturer);
+        car.setDrivers(drivers);
+        return car;
+    }
+
+    private void requireFields(List<String> record, int count) {
+        if (record.size() < count) {
+            throw new IllegalArgumentException("expected " + count + " fields, found "
+                    + record.size());
+        }
+        for (int i = 0; i < count; i++) {
+            if (record.get(i).isBlank()) {
+                throw new IllegalArgumentException("field " + (i + 1) + " is empty");
+            }
+        }
+    }
+
+    private Long parseId(String value) {
+        try {
+            return Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("'" + value + "' is not an id");
+        }
+    }
+
+    private String entityOf(HttpServletRequest req) {
+        String path = req.getServletPath();
+        return path.substring(1, path.indexOf('/', 1));
+    }
+
+    private List<String> columnsOf(String entity) {
+        switch (entity) {
+            case "drivers":
+                return DRIVER_COLUMNS;
+            case "manufacturers":
+                return MANUFACTURER_COLUMNS;
+            default:
+                return CAR_COLUMNS;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package taxi.controller;
+
+import java.io.IOException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import taxi.util.PrometheusWriter;
+
+@WebServlet(urlPatterns = "/metrics")
+public class MetricsController extends HttpServlet {
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        resp.setContentType("text/plain; version=0.0.4; charset=UTF-8");
+        new PrometheusWriter(resp.getWriter()).writeAll();
+    }
+}
@@ -3,6 +3,7 @@ package taxi.controller.auth;
 import java.io.IOException;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -10,9 +11,12 @@ import javax.servlet.http.HttpSession;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import taxi.exception.AuthenticationException;
+import taxi.filter.AuthenticationFilter;
 import taxi.lib.Injector;
 import taxi.model.Driver;
 import taxi.service.AuthenticationService;
+import taxi.util.AuthTokens;
+import taxi.util.ClientAddress;
 
 @WebServlet(urlPatterns = "/sign-in")
 public class SignInController extends HttpServlet {
@@ -34,12 +38,23 @@ public class SignInController extends HttpServlet {
         String password = req.getParameter("password");
 
         try {
-            Driver driver = authenticationService.login(login, password);
-            HttpSession session = req.getSession();
-            session.setAttribute("driver_id", driver.getId());
+            Driver driver = authenticationService.login(login, password,
+                    ClientAddress.of(req));
+            if (AuthTokens.isEnabled()) {
+                Cookie cookie = new Cookie(AuthTokens.COOKIE_NAME,
+                        AuthTokens.issue(driver.getId()));
+                cookie.setHttpOnly(true);
+                cookie.setSecure(req.isSecure());
+                cookie.setPath(req.getContextPath() + "/");
+                cookie.setMaxAge(AuthTokens.getTtlSeconds());
+                resp.addCookie(cookie);
+            } else {
+                HttpSession session = req.getSession();
+                session.setAttribute(AuthenticationFilter.DRIVER_ID, driver.getId());
+            }
             resp.sendRedirect(req.getContextPath() + "/");
         } catch (AuthenticationException e) {
-            logger.info(e.getMessage() + " login: " + login);
+            logger.info("{} login: {}", e.getMessage(), login);
             req.setAttribute("errorMessage", e.getMessage());
             req.getRequestDispatcher("/WEB-INF/views/auth/signin.jsp").forward(req, resp);
         }
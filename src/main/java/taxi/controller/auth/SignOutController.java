@@ -3,18 +3,29 @@ package taxi.controller.auth;
 import java.io.IOException;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
+import taxi.util.AuthTokens;
 
 @WebServlet(urlPatterns = "/sign-out")
 public class SignOutController extends HttpServlet {
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp)
             throws ServletException, IOException {
-        HttpSession session = req.getSession();
-        session.invalidate();
+        HttpSession session = req.getSession(false);
+        if (session != null) {
+            session.invalidate();
+        }
+        if (AuthTokens.isEnabled()) {
+            Cookie cookie = new Cookie(AuthTokens.COOKIE_NAME, "");
+            cookie.setHttpOnly(true);
+            cookie.setPath(req.getContextPath() + "/");
+            cookie.setMaxAge(0);
+            resp.addCookie(cookie);
+        }
         resp.sendRedirect(req.getContextPath() + "/sign-in");
     }
 }
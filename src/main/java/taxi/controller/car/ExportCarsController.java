@@ -0,0 +1,128 @@
+package taxi.controller.car;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import taxi.lib.Injector;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.service.CarService;
+import taxi.util.CsvWriter;
+
+/**
+ * Streams all cars with their manufacturer and drivers as CSV (default) or, with
+ * {@code format=ndjson}, as one JSON object per line. Rows are written while the
+ * query is still being read; the response has no content length and goes out
+ * chunked, and a client that disconnects stops the query. Driver credentials are
+ * not exported. In CSV the drivers of a car are listed in one field per attribute,
+ * separated by {@code ;}; a {@code ;} or {@code \} inside a value is escaped with
+ * a backslash.
+ */
+@WebServlet(urlPatterns = "/cars/export")
+public class ExportCarsController extends HttpServlet {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private final CarService carService = (CarService) injector.getInstance(CarService.class);
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        boolean ndjson = "ndjson".equals(req.getParameter("format"));
+        resp.setContentType(ndjson ? "application/x-ndjson; charset=UTF-8"
+                : "text/csv; charset=UTF-8");
+        resp.setHeader("Content-Disposition", "attachment; filename=\"cars."
+                + (ndjson ? "ndjson" : "csv") + '"');
+        Writer writer = new BufferedWriter(new OutputStreamWriter(resp.getOutputStream(),
+                StandardCharsets.UTF_8));
+        try {
+            if (ndjson) {
+                carService.exportAll(car -> writeJson(writer, car));
+            } else {
+                CsvWriter csv = new CsvWriter(writer);
+                csv.writeRecord("id", "model", "manufacturer_id", "manufacturer_name",
+                        "manufacturer_country", "driver_ids", "driver_names",
+                        "driver_license_numbers");
+                carService.exportAll(car -> writeCsv(csv, car));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void writeJson(Writer writer, Car car) {
+        try {
+            writer.write(toJson(car));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeCsv(CsvWriter csv, Car car) {
+        try {
+            csv.writeRecord(car.getId(), car.getModel(), car.getManufacturer().getId(),
+                    car.getManufacturer().getName(), car.getManufacturer().getCountry(),
+                    joinList(car.getDrivers(), driver -> driver.getId().toString()),
+                    joinList(car.getDrivers(), Driver::getName),
+                    joinList(car.getDrivers(), Driver::getLicenseNumber));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String joinList(List<Driver> drivers, Function<Driver, String> attribute) {
+        return CsvWriter.joinList(drivers.stream()
+                .map(attribute)
+                .collect(Collectors.toList()));
+    }
+
+    private String toJson(Car car) {
+        StringBuilder json = new StringBuilder(256)
+                .append("{\"id\":").append(car.getId())
+                .append(",\"model\":");
+        appendString(json, car.getModel());
+        json.append(",\"manufacturer\":{\"id\":").append(car.getManufacturer().getId())
+                .append(",\"name\":");
+        appendString(json, car.getManufacturer().getName());
+        json.append(",\"country\":");
+        appendString(json, car.getManufacturer().getCountry());
+        json.append("},\"drivers\":[");
+        for (int i = 0; i < car.getDrivers().size(); i++) {
+            Driver driver = car.getDrivers().get(i);
+            json.append(i > 0 ? ",{\"id\":" : "{\"id\":").append(driver.getId())
+                    .append(",\"name\":");
+            appendString(json, driver.getName());
+            json.append(",\"licenseNumber\":");
+            appendString(json, driver.getLicenseNumber());
+            json.append('}');
+        }
+        return json.append("]}\n").toString();
+    }
+
+    private void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+}
@@ -1,26 +1,33 @@
 package taxi.controller.car;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.Map;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import taxi.lib.Injector;
-import taxi.model.Car;
+import taxi.model.CarListRow;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 import taxi.service.CarService;
+import taxi.util.Bulkhead;
+import taxi.util.PageRequestUtil;
 
-@WebServlet(urlPatterns = "/cars")
+@WebServlet(urlPatterns = "/cars", asyncSupported = true)
 public class GetAllCarsController extends HttpServlet {
     private static final Injector injector = Injector.getInstance("taxi");
     private final CarService carService = (CarService) injector.getInstance(CarService.class);
+    private final Bulkhead bulkhead = Bulkhead.of("lists");
 
     @Override
     public void doGet(HttpServletRequest req, HttpServletResponse resp)
             throws ServletException, IOException {
-        List<Car> allCars = carService.getAll();
-        req.setAttribute("cars", allCars);
-        req.getRequestDispatcher("/WEB-INF/views/cars/all.jsp").forward(req, resp);
+        PageRequest request = PageRequestUtil.fromRequest(req, "model");
+        bulkhead.dispatch(req, resp, "/WEB-INF/views/cars/all.jsp", () -> {
+            Page<CarListRow> page = carService.getListPage(request);
+            return Map.of("page", page, "cars", page.getItems());
+        });
     }
 }
@@ -1,26 +1,32 @@
 package taxi.controller.car;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.stream.Collectors;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpSession;
+import taxi.filter.AuthenticationFilter;
 import taxi.lib.Injector;
+import taxi.model.CarListRow;
 import taxi.service.CarService;
+import taxi.util.Bulkhead;
 
-@WebServlet(urlPatterns = "/drivers/cars")
+@WebServlet(urlPatterns = "/drivers/cars", asyncSupported = true)
 public class GetMyCurrentCarsController extends HttpServlet {
     private static final Injector injector = Injector.getInstance("taxi");
     private final CarService carService = (CarService) injector.getInstance(CarService.class);
+    private final Bulkhead bulkhead = Bulkhead.of("lists");
 
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp)
             throws ServletException, IOException {
-        HttpSession session = req.getSession();
-        Long driverId = (Long) session.getAttribute("driver_id");
-        req.setAttribute("cars", carService.getAllByDriver(driverId));
-        req.getRequestDispatcher("/WEB-INF/views/cars/all.jsp").forward(req, resp);
+        Long driverId = (Long) req.getAttribute(AuthenticationFilter.DRIVER_ID);
+        bulkhead.dispatch(req, resp, "/WEB-INF/views/cars/all.jsp",
+                () -> Map.of("cars", carService.getAllByDriver(driverId).stream()
+                        .map(CarListRow::of)
+                        .collect(Collectors.toList())));
     }
 }
@@ -1,27 +1,34 @@
 package taxi.controller.driver;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.Map;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import taxi.lib.Injector;
-import taxi.model.Driver;
+import taxi.model.DriverSummary;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 import taxi.service.DriverService;
+import taxi.util.Bulkhead;
+import taxi.util.PageRequestUtil;
 
-@WebServlet(urlPatterns = "/drivers")
+@WebServlet(urlPatterns = "/drivers", asyncSupported = true)
 public class GetAllDriversController extends HttpServlet {
     private static final Injector injector = Injector.getInstance("taxi");
     private final DriverService driverService = (DriverService) injector
             .getInstance(DriverService.class);
+    private final Bulkhead bulkhead = Bulkhead.of("lists");
 
     @Override
     public void doGet(HttpServletRequest req, HttpServletResponse resp)
             throws ServletException, IOException {
-        List<Driver> allDrivers = driverService.getAll();
-        req.setAttribute("drivers", allDrivers);
-        req.getRequestDispatcher("/WEB-INF/views/drivers/all.jsp").forward(req, resp);
+        PageRequest request = PageRequestUtil.fromRequest(req, "name");
+        bulkhead.dispatch(req, resp, "/WEB-INF/views/drivers/all.jsp", () -> {
+            Page<DriverSummary> page = driverService.getSummaryPage(request);
+            return Map.of("page", page, "drivers", page.getItems());
+        });
     }
 }
@@ -1,7 +1,7 @@
 package taxi.controller.manufacturer;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.Map;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
@@ -9,19 +9,26 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import taxi.lib.Injector;
 import taxi.model.Manufacturer;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 import taxi.service.ManufacturerService;
+import taxi.util.Bulkhead;
+import taxi.util.PageRequestUtil;
 
-@WebServlet(urlPatterns = "/manufacturers")
+@WebServlet(urlPatterns = "/manufacturers", asyncSupported = true)
 public class GetAllManufacturersController extends HttpServlet {
     private static final Injector injector = Injector.getInstance("taxi");
     private final ManufacturerService manufacturerService = (ManufacturerService) injector
             .getInstance(ManufacturerService.class);
+    private final Bulkhead bulkhead = Bulkhead.of("lists");
 
     @Override
     public void doGet(HttpServletRequest req, HttpServletResponse resp)
             throws ServletException, IOException {
-        List<Manufacturer> allManufacturers = manufacturerService.getAll();
-        req.setAttribute("manufacturers", allManufacturers);
-        req.getRequestDispatcher("/WEB-INF/views/manufacturers/all.jsp").forward(req, resp);
+        PageRequest request = PageRequestUtil.fromRequest(req, "name");
+        bulkhead.dispatch(req, resp, "/WEB-INF/views/manufacturers/all.jsp", () -> {
+            Page<Manufacturer> page = manufacturerService.getPage(request);
+            return Map.of("page", page, "manufacturers", page.getItems());
+        });
     }
 }
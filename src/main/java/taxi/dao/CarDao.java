@@ -1,8 +1,33 @@
 package taxi.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 import taxi.model.Car;
+import taxi.model.CarListRow;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 
 public interface CarDao extends GenericDao<Car> {
     List<Car> getAllByDriver(Long driverId);
+
+    Page<CarListRow> getListPage(PageRequest request);
+
+    void exportAll(Consumer<Car> action);
+
+    List<Car> getAllByIds(Collection<Long> ids);
+
+    /**
+     * Streams the active rows of cars_drivers in one pass without boxing the ids.
+     */
+    void forEachAssignment(AssignmentConsumer action);
+
+    void assignDriver(Long carId, Long driverId);
+
+    void unassignDriver(Long carId, Long driverId);
+
+    @FunctionalInterface
+    interface AssignmentConsumer {
+        void accept(long carId, long driverId);
+    }
 }
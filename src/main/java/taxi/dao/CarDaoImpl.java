@@ -6,21 +6,39 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import taxi.exception.BatchProcessingException;
+import taxi.exception.DataProcessingException;
 import taxi.lib.Dao;
+import taxi.lib.EntityChangeEvent.Operation;
+import taxi.lib.EventBus;
 import taxi.model.Car;
+import taxi.model.CarListRow;
 import taxi.model.Driver;
+import taxi.model.DriverSummary;
 import taxi.model.Manufacturer;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 import taxi.util.ConnectionUtil;
+import taxi.util.LogSummary;
+import taxi.util.TableVersions;
 
 @Dao
 public class CarDaoImpl implements CarDao {
     private static final int ZERO_PLACEHOLDER = 0;
     private static final int SHIFT = 2;
+    private static final int DRIVERS_BATCH_SIZE = 512;
+    private static final int EXPORT_FETCH_SIZE = 1_000;
+    private static final String DRIVER_COLUMNS = "name, license_number, login, password";
+    private static final String SUMMARY_COLUMNS = "name, license_number, login";
     private static final Logger logger = LogManager.getLogger(CarDaoImpl.class);
 
     @Override
@@ -33,20 +51,43 @@ public class CarDaoImpl implements CarDao {
                         connection.prepareStatement(
                              query, Statement.RETURN_GENERATED_KEYS)) {
             statement.setString(1, car.getModel());
-            statement.setLong(2, car.getManufacturer().getId());
+            statement.setLong(2, car.getManufacturer().id());
             statement.executeUpdate();
             ResultSet resultSet = statement.getGeneratedKeys();
             if (resultSet.next()) {
                 car.setId(resultSet.getObject(1, Long.class));
             }
-            logger.debug("Create car: " + car);
+            insertAllDrivers(connection, car);
+            TableVersions.bump(TableVersions.CARS);
+            EventBus.publish(TableVersions.CARS, car.getId(), Operation.CREATE);
+            logger.debug("Create car with id: {}", car.getId());
+            logger.trace("Created {}", car);
         } catch (SQLException e) {
-            logger.error("Can't create car: " + car, e);
+            throw new DataProcessingException("Can't create car: " + car, e);
         }
-        insertAllDrivers(car);
         return car;
     }
 
+    @Override
+    public List<Car> createAll(List<Car> cars) {
+        logger.debug("Method createAll start.");
+        String query = "INSERT INTO cars (model, manufacturer_id) VALUES (?, ?)";
+        try (Connection connection = ConnectionUtil.getConnection()) {
+            JdbcBatch.insert(connection, query, cars, (statement, car) -> {
+                statement.setString(1, car.getModel());
+                statement.setLong(2, car.getManufacturer().id());
+            }, Car::setId);
+            insertAllDrivers(connection, cars);
+            TableVersions.bump(TableVersions.CARS);
+            EventBus.publishAll(TableVersions.CARS,
+                    cars.stream().mapToLong(Car::id).toArray(), Operation.CREATE);
+            logger.debug("Create {} cars", cars.size());
+        } catch (SQLException e) {
+            throw new DataProcessingException("Can't create " + cars.size() + " cars", e);
+        }
+        return cars;
+    }
+
     @Override
     public Optional<Car> get(Long id) {
         logger.debug("Method get start.");
@@ -59,27 +100,26 @@ public class CarDaoImpl implements CarDao {
                 + "JOIN manufacturers m ON c.manufacturer_id = m.id "
                 + "WHERE c.id = ? AND c.is_deleted = FALSE";
         Car car = null;
-        try (Connection connection = ConnectionUtil.getConnection();
+        try (Connection connection = ConnectionUtil.getReadOnlyConnection();
                 PreparedStatement statement =
                         connection.prepareStatement(query)) {
             statement.setLong(1, id);
             ResultSet resultSet = statement.executeQuery();
             if (resultSet.next()) {
                 car = parseCarFromResultSet(resultSet);
+                loadDrivers(connection, List.of(car));
             }
         } catch (SQLException e) {
-            logger.error("Can't get car by id: " + id, e);
+            logger.error("Can't get car by id: {}", id, e);
         }
-        if (car != null) {
-            car.setDrivers(getAllDriversByCarId(car.getId()));
-        }
-        logger.debug("Get car: " + car + " by id: " + id);
+        logger.debug("Get car by id: {}, found: {}", id, car != null);
+        logger.trace("Get {} by id: {}", car, id);
         return Optional.ofNullable(car);
     }
 
     @Override
     public List<Car> getAll() {
-        logger.debug("Method getФll start.");
+        logger.debug("Method getAll start.");
         String query = "SELECT c.id AS id, "
                 + "model, "
                 + "manufacturer_id, "
@@ -89,22 +129,73 @@ public class CarDaoImpl implements CarDao {
                 + " JOIN manufacturers m ON c.manufacturer_id = m.id"
                 + " WHERE c.is_deleted = FALSE";
         List<Car> cars = new ArrayList<>();
-        try (Connection connection = ConnectionUtil.getConnection();
+        try (Connection connection = ConnectionUtil.getReadOnlyConnection();
                 PreparedStatement statement =
                         connection.prepareStatement(query)) {
             ResultSet resultSet = statement.executeQuery();
             while (resultSet.next()) {
                 cars.add(parseCarFromResultSet(resultSet));
             }
-            cars.forEach(car -> car.setDrivers(getAllDriversByCarId(car.getId())));
-            logger.debug("Get list cars:");
-            cars.forEach(logger::debug);
+            loadDrivers(connection, cars);
+            logger.debug("Get list cars: {} items", cars.size());
+            if (logger.isTraceEnabled()) {
+                logger.trace("Get list cars: {}", LogSummary.of(cars));
+            }
         } catch (SQLException e) {
             logger.error("Can't get all cars", e);
         }
         return cars;
     }
 
+    @Override
+    public Page<Car> getPage(PageRequest request) {
+        logger.debug("Method getPage start.");
+        List<Car> cars = new ArrayList<>();
+        try (Connection connection = ConnectionUtil.getReadOnlyConnection();
+                PreparedStatement statement =
+                        connection.prepareStatement(pageQuery(request))) {
+            ResultSet resultSet = bindPage(statement, request).executeQuery();
+            while (resultSet.next()) {
+                cars.add(parseCarFromResultSet(resultSet));
+            }
+            Page<Car> page = KeysetPaging.toPage(cars, request, Car::getId);
+            loadDrivers(connection, page.getItems());
+            logger.debug("Get {} for {}", page, request);
+            return page;
+        } catch (SQLException e) {
+            logger.error("Can't get page of cars for {}", request, e);
+            return new Page<>(new ArrayList<>(), null, null);
+        }
+    }
+
+    @Override
+    public Page<CarListRow> getListPage(PageRequest request) {
+        logger.debug("Method getListPage start.");
+        List<CarListRow> rows = new ArrayList<>();
+        try (Connection connection = ConnectionUtil.getReadOnlyConnection();
+                PreparedStatement statement =
+                        connection.prepareStatement(pageQuery(request))) {
+            ResultSet resultSet = bindPage(statement, request).executeQuery();
+            while (resultSet.next()) {
+                rows.add(new CarListRow(resultSet.getObject("id", Long.class),
+                        resultSet.getNString("model"),
+                        resultSet.getNString("manufacturer_name"),
+                        resultSet.getNString("manufacturer_country")));
+            }
+            Page<CarListRow> page = KeysetPaging.toPage(rows, request, CarListRow::getId);
+            Map<Long, CarListRow> rowsById = new HashMap<>();
+            page.getItems().forEach(row -> rowsById.put(row.getId(), row));
+            forEachAssignedDriver(connection, rowsById.keySet(), SUMMARY_COLUMNS,
+                    driverRow -> rowsById.get(driverRow.getObject("car_id", Long.class))
+                            .getDrivers().add(parseDriverSummary(driverRow)));
+            logger.debug("Get {} for {}", page, request);
+            return page;
+        } catch (SQLException e) {
+            logger.error("Can't get list page of cars for {}", request, e);
+            return new Page<>(new ArrayList<>(), null, null);
+        }
+    }
+
     @Override
     public Car update(Car car) {
         logger.debug("Method update start.");
@@ -114,14 +205,19 @@ public class CarDaoImpl implements CarDao {
                 PreparedStatement statement =
                         connection.prepareStatement(query)) {
             statement.setString(1, car.getModel());
-            statement.setLong(2, car.getManufacturer().getId());
-            statement.setLong(3, car.getId());
-            statement.executeUpdate();
-            deleteAllDriversExceptList(car);
-            insertAllDrivers(car);
-            logger.debug("Update car: " + car);
+            statement.setLong(2, car.getManufacturer().id());
+            statement.setLong(3, car.id());
+            boolean updated = statement.executeUpdate() > 0;
+            if (updated) {
+                deleteAllDriversExceptList(connection, car);
+                insertAllDrivers(connection, car);
+                TableVersions.bump(TableVersions.CARS);
+                EventBus.publish(TableVersions.CARS, car.getId(), Operation.UPDATE);
+            }
+            logger.debug("Update car with id: {} is {}", car.getId(), updated);
+            logger.trace("Updated {}", car);
         } catch (SQLException e) {
-            logger.error("Can't update car: " + car, e);
+            throw new DataProcessingException("Can't update car: " + car, e);
         }
         return car;
     }
@@ -136,10 +232,14 @@ public class CarDaoImpl implements CarDao {
                          connection.prepareStatement(query)) {
             statement.setLong(1, id);
             boolean resultDeleted = statement.executeUpdate() > 0;
-            logger.debug("deleted by id: " + id + " is " + resultDeleted);
+            if (resultDeleted) {
+                TableVersions.bump(TableVersions.CARS);
+                EventBus.publish(TableVersions.CARS, id, Operation.DELETE);
+            }
+            logger.debug("deleted by id: {} is {}", id, resultDeleted);
             return resultDeleted;
         } catch (SQLException e) {
-            logger.error("Can't delete car by id: " + id, e);
+            logger.error("Can't delete car by id: {}", id, e);
             return false;
         }
     }
@@ -159,7 +259,7 @@ public class CarDaoImpl implements CarDao {
                 + " WHERE c.is_deleted = FALSE AND driver_id = ?"
                 + " AND d.is_deleted = FALSE";
         List<Car> cars = new ArrayList<>();
-        try (Connection connection = ConnectionUtil.getConnection();
+        try (Connection connection = ConnectionUtil.getReadOnlyConnection();
                 PreparedStatement statement =
                         connection.prepareStatement(query)) {
             statement.setLong(1, driverId);
@@ -167,99 +267,365 @@ public class CarDaoImpl implements CarDao {
             while (resultSet.next()) {
                 cars.add(parseCarFromResultSet(resultSet));
             }
+            loadDrivers(connection, cars);
         } catch (SQLException e) {
-            logger.error("Can't get all cars by driver id: " + driverId, e);
+            logger.error("Can't get all cars by driver id: {}", driverId, e);
+        }
+        logger.debug("Get list cars by driver id {}: {} items", driverId, cars.size());
+        if (logger.isTraceEnabled()) {
+            logger.trace("Get list cars by driver id {}: {}", driverId, LogSummary.of(cars));
         }
-        cars.forEach(car -> car.setDrivers(getAllDriversByCarId(car.getId())));
-        logger.debug("Get list cars by driver id:");
-        cars.forEach(logger::debug);
         return cars;
     }
 
-    private void insertAllDrivers(Car car) {
-        logger.debug("Method insertAllDrivers start.");
-        Long carId = car.getId();
-        List<Driver> drivers = car.getDrivers();
-        if (drivers.size() == 0) {
-            return;
+    @Override
+    public List<Car> getAllByIds(Collection<Long> ids) {
+        logger.debug("Method getAllByIds start.");
+        List<Long> carIds = new ArrayList<>(ids);
+        List<Car> cars = new ArrayList<>();
+        try (Connection connection = ConnectionUtil.getReadOnlyConnection()) {
+            for (int from = 0; from < carIds.size(); from += DRIVERS_BATCH_SIZE) {
+                List<Long> chunk = carIds.subList(from,
+                        Math.min(from + DRIVERS_BATCH_SIZE, carIds.size()));
+                int placeholders = SqlBuckets.bucket(chunk.size());
+                String query = "SELECT c.id AS id, "
+                        + "model, "
+                        + "manufacturer_id, "
+                        + "m.name AS manufacturer_name, "
+                        + "m.country AS manufacturer_country "
+                        + "FROM cars c"
+                        + " JOIN manufacturers m ON c.manufacturer_id = m.id"
+                        + " WHERE c.id IN (" + SqlBuckets.placeholders("?", placeholders)
+                        + ") AND c.is_deleted = FALSE";
+                try (PreparedStatement statement = connection.prepareStatement(query)) {
+                    for (int i = 0; i < placeholders; i++) {
+                        statement.setLong(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+                    }
+                    ResultSet resultSet = statement.executeQuery();
+                    while (resultSet.next()) {
+                        cars.add(parseCarFromResultSet(resultSet));
+                    }
+                }
+            }
+            loadDrivers(connection, cars);
+        } catch (SQLException e) {
+            logger.error("Can't get cars by {} ids", carIds.size(), e);
         }
-        String query = "INSERT INTO cars_drivers (car_id, driver_id) VALUES "
-                + drivers.stream().map(driver -> "(?, ?)").collect(Collectors.joining(", "))
+        logger.debug("Get {} cars for {} ids", cars.size(), carIds.size());
+        return cars;
+    }
+
+    @Override
+    public void forEachAssignment(AssignmentConsumer action) {
+        logger.debug("Method forEachAssignment start.");
+        String query = "SELECT cd.car_id AS car_id, cd.driver_id AS driver_id "
+                + "FROM cars_drivers cd"
+                + " JOIN cars c ON cd.car_id = c.id"
+                + " JOIN drivers d ON cd.driver_id = d.id"
+                + " WHERE c.is_deleted = FALSE AND d.is_deleted = FALSE";
+        long assignments = 0;
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(query,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(EXPORT_FETCH_SIZE);
+            ResultSet resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                action.accept(resultSet.getLong("car_id"), resultSet.getLong("driver_id"));
+                assignments++;
+            }
+        } catch (SQLException e) {
+            throw new DataProcessingException("Can't read car assignments after "
+                    + assignments + " rows", e);
+        }
+        logger.debug("Read {} car assignments", assignments);
+    }
+
+    /**
+     * Reads all cars with one forward-only query ordered by car id and hands every
+     * car to {@code action} as soon as its last driver row has been read, so only
+     * one car is held in memory at a time.
+     */
+    @Override
+    public void exportAll(Consumer<Car> action) {
+        logger.debug("Method exportAll start.");
+        String query = "SELECT c.id AS id, "
+                + "model, "
+                + "manufacturer_id, "
+                + "m.name AS manufacturer_name, "
+                + "m.country AS manufacturer_country, "
+                + "d.id AS driver_id, d.name AS name, license_number, login "
+                + "FROM cars c"
+                + " JOIN manufacturers m ON c.manufacturer_id = m.id"
+                + " LEFT JOIN cars_drivers cd ON cd.car_id = c.id"
+                + " LEFT JOIN drivers d ON cd.driver_id = d.id AND d.is_deleted = FALSE"
+                + " WHERE c.is_deleted = FALSE"
+                + " ORDER BY c.id";
+        long exported = 0;
+        try (Connection connection = ConnectionUtil.getReadOnlyConnection();
+                PreparedStatement statement = connection.prepareStatement(query,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(EXPORT_FETCH_SIZE);
+            ResultSet resultSet = statement.executeQuery();
+            Car car = null;
+            while (resultSet.next()) {
+                long carId = resultSet.getLong("id");
+                if (car == null || car.id() != carId) {
+                    if (car != null) {
+                        action.accept(car);
+                        exported++;
+                    }
+                    car = parseCarFromResultSet(resultSet);
+                    car.setDrivers(new ArrayList<>());
+                }
+                if (resultSet.getObject("driver_id", Long.class) != null) {
+                    car.getDrivers().add(parseDriverProfile(resultSet));
+                }
+            }
+            if (car != null) {
+                action.accept(car);
+                exported++;
+            }
+        } catch (SQLException e) {
+            throw new DataProcessingException("Can't export cars after " + exported
+                    + " rows", e);
+        }
+        logger.debug("Export {} cars", exported);
+    }
+
+    @Override
+    public void assignDriver(Long carId, Long driverId) {
+        logger.debug("Method assignDriver start.");
+        String query = "INSERT INTO cars_drivers (car_id, driver_id) SELECT ?, ? FROM DUAL"
+                + " WHERE NOT EXISTS (SELECT 1 FROM cars_drivers"
+                + " WHERE car_id = ? AND driver_id = ?)"
                 + " ON DUPLICATE KEY UPDATE car_id = car_id";
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement =
                         connection.prepareStatement(query)) {
-            for (int i = 0; i < drivers.size(); i++) {
-                Driver driver = drivers.get(i);
+            statement.setLong(1, carId);
+            statement.setLong(2, driverId);
+            statement.setLong(3, carId);
+            statement.setLong(4, driverId);
+            boolean assigned = statement.executeUpdate() > 0;
+            if (assigned) {
+                TableVersions.bump(TableVersions.CARS);
+                EventBus.publish(TableVersions.CARS, carId, Operation.UPDATE);
+            }
+            logger.debug("Driver {} assigned to car {} is {}", driverId, carId, assigned);
+        } catch (SQLException e) {
+            throw new DataProcessingException("Can't assign driver " + driverId
+                    + " to car " + carId, e);
+        }
+    }
+
+    @Override
+    public void unassignDriver(Long carId, Long driverId) {
+        logger.debug("Method unassignDriver start.");
+        String query = "DELETE FROM cars_drivers WHERE car_id = ? AND driver_id = ?";
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement =
+                        connection.prepareStatement(query)) {
+            statement.setLong(1, carId);
+            statement.setLong(2, driverId);
+            boolean unassigned = statement.executeUpdate() > 0;
+            if (unassigned) {
+                TableVersions.bump(TableVersions.CARS);
+                EventBus.publish(TableVersions.CARS, carId, Operation.UPDATE);
+            }
+            logger.debug("Driver {} unassigned from car {} is {}", driverId, carId, unassigned);
+        } catch (SQLException e) {
+            throw new DataProcessingException("Can't unassign driver " + driverId
+                    + " from car " + carId, e);
+        }
+    }
+
+    private void insertAllDrivers(Connection connection, Car car) throws SQLException {
+        logger.debug("Method insertAllDrivers start.");
+        long carId = car.id();
+        long[] driverIds = car.getDriverIds();
+        if (driverIds.length == 0) {
+            return;
+        }
+        int rows = SqlBuckets.bucket(driverIds.length);
+        String query = "INSERT INTO cars_drivers (car_id, driver_id) VALUES "
+                + SqlBuckets.placeholders("(?, ?)", rows)
+                + " ON DUPLICATE KEY UPDATE car_id = car_id";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            for (int i = 0; i < rows; i++) {
                 statement.setLong((i * SHIFT) + 1, carId);
-                statement.setLong((i * SHIFT) + 2, driver.getId());
+                statement.setLong((i * SHIFT) + 2, driverIds[Math.min(i, driverIds.length - 1)]);
             }
             statement.executeUpdate();
-            logger.debug("All drivers insert to car:" + car);
-        } catch (SQLException e) {
-            logger.error("Can't insert drivers " + drivers, e);
+            logger.debug("{} drivers insert to car with id: {}", driverIds.length, carId);
         }
     }
 
-    private void deleteAllDriversExceptList(Car car) {
+    /**
+     * Assigns the drivers of freshly inserted cars in one batch. Rejected
+     * assignments are reported under the index of their car.
+     */
+    private void insertAllDrivers(Connection connection, List<Car> cars) throws SQLException {
+        logger.debug("Method insertAllDrivers start.");
+        List<long[]> assignments = new ArrayList<>();
+        for (int i = 0; i < cars.size(); i++) {
+            for (long driverId : cars.get(i).getDriverIds()) {
+                assignments.add(new long[] {i, cars.get(i).id(), driverId});
+            }
+        }
+        String query = "INSERT INTO cars_drivers (car_id, driver_id) VALUES (?, ?)"
+                + " ON DUPLICATE KEY UPDATE car_id = car_id";
+        try {
+            JdbcBatch.execute(connection, query, assignments, (statement, assignment) -> {
+                statement.setLong(1, assignment[1]);
+                statement.setLong(2, assignment[2]);
+            });
+        } catch (BatchProcessingException e) {
+            Map<Integer, String> carErrors = new TreeMap<>();
+            e.getRowErrors().forEach((row, message) ->
+                    carErrors.putIfAbsent((int) assignments.get(row)[0], message));
+            throw new BatchProcessingException(e.getMessage(), e.getCause(), carErrors);
+        }
+        logger.debug("{} drivers insert to {} cars", assignments.size(), cars.size());
+    }
+
+    private void deleteAllDriversExceptList(Connection connection, Car car)
+            throws SQLException {
         logger.debug("Method deleteAllDriversExceptList start.");
         Long carId = car.getId();
-        List<Driver> exceptions = car.getDrivers();
-        int size = exceptions.size();
+        long[] exceptions = car.getDriverIds();
+        int size = exceptions.length;
+        int placeholders = SqlBuckets.bucket(size);
         String query = "DELETE FROM cars_drivers WHERE car_id = ? "
                 + "AND NOT driver_id IN ("
-                + ZERO_PLACEHOLDER + ", ?".repeat(size)
+                + ZERO_PLACEHOLDER + ", ?".repeat(placeholders)
                 + ");";
-        try (Connection connection = ConnectionUtil.getConnection();
-                PreparedStatement statement =
-                        connection.prepareStatement(query)) {
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setLong(1, carId);
-            for (int i = 0; i < size; i++) {
-                Driver driver = exceptions.get(i);
-                statement.setLong((i) + SHIFT, driver.getId());
+            for (int i = 0; i < placeholders; i++) {
+                statement.setLong((i) + SHIFT, exceptions[Math.min(i, size - 1)]);
             }
             statement.executeUpdate();
-            logger.debug("All drivers delete from car:" + car);
-        } catch (SQLException e) {
-            logger.error("Can't delete drivers " + exceptions, e);
+            logger.debug("Drivers except {} delete from car with id: {}", size, carId);
         }
     }
 
-    private List<Driver> getAllDriversByCarId(Long carId) {
-        logger.debug("Method getAllDriversByCarId start.");
-        String query = "SELECT id, name, license_number, login, password "
-                + "FROM cars_drivers cd "
-                + "JOIN drivers d ON cd.driver_id = d.id "
-                + "WHERE car_id = ? AND is_deleted = false";
-        List<Driver> drivers = new ArrayList<>();
-        try (Connection connection = ConnectionUtil.getConnection();
-                PreparedStatement statement =
-                        connection.prepareStatement(query)) {
-            statement.setLong(1, carId);
-            ResultSet resultSet = statement.executeQuery();
-            while (resultSet.next()) {
-                drivers.add(parseDriverFromResultSet(resultSet));
+    /**
+     * Loads drivers of all given cars with one query per chunk of
+     * {@value #DRIVERS_BATCH_SIZE} cars instead of one query per car. Cars loaded
+     * together share one instance per manufacturer and per driver, and their driver
+     * lists are trimmed, so cached cars don't hold duplicate copies.
+     */
+    private void loadDrivers(Connection connection, List<Car> cars) throws SQLException {
+        logger.debug("Method loadDrivers start.");
+        Map<Long, ArrayList<Driver>> driversByCar = new HashMap<>();
+        Map<Long, Manufacturer> manufacturers = new HashMap<>();
+        for (Car car : cars) {
+            car.setManufacturer(manufacturers.merge(car.getManufacturer().getId(),
+                    car.getManufacturer(), (shared, copy) -> shared));
+            ArrayList<Driver> carDrivers = new ArrayList<>();
+            car.setDrivers(carDrivers);
+            driversByCar.put(car.getId(), carDrivers);
+        }
+        Map<Long, Driver> drivers = new HashMap<>();
+        forEachAssignedDriver(connection, driversByCar.keySet(), DRIVER_COLUMNS, resultSet -> {
+            Long driverId = resultSet.getObject("driver_id", Long.class);
+            Driver driver = drivers.get(driverId);
+            if (driver == null) {
+                driver = parseDriverFromResultSet(resultSet);
+                drivers.put(driverId, driver);
+            }
+            driversByCar.get(resultSet.getObject("car_id", Long.class)).add(driver);
+        });
+        driversByCar.values().forEach(ArrayList::trimToSize);
+        logger.debug("Get drivers for {} cars", cars.size());
+    }
+
+    /**
+     * Passes the active drivers of the given cars, with {@code car_id}, {@code driver_id}
+     * and the given driver columns, to the handler row by row.
+     */
+    private void forEachAssignedDriver(Connection connection, Collection<Long> carIds,
+                                       String columns, RowHandler handler)
+            throws SQLException {
+        List<Long> ids = new ArrayList<>(carIds);
+        for (int from = 0; from < ids.size(); from += DRIVERS_BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from,
+                    Math.min(from + DRIVERS_BATCH_SIZE, ids.size()));
+            int placeholders = SqlBuckets.bucket(chunk.size());
+            String query = "SELECT cd.car_id AS car_id, d.id AS driver_id, " + columns
+                    + " FROM cars_drivers cd "
+                    + "JOIN drivers d ON cd.driver_id = d.id "
+                    + "WHERE cd.car_id IN ("
+                    + SqlBuckets.placeholders("?", placeholders)
+                    + ") AND d.is_deleted = FALSE";
+            try (PreparedStatement statement = connection.prepareStatement(query)) {
+                for (int i = 0; i < placeholders; i++) {
+                    statement.setLong(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+                }
+                ResultSet resultSet = statement.executeQuery();
+                while (resultSet.next()) {
+                    handler.handle(resultSet);
+                }
             }
-            logger.debug("Get drivers by car id:");
-            drivers.forEach(logger::debug);
-        } catch (SQLException e) {
-            logger.error("Can't get all drivers by car id " + carId, e);
         }
-        return drivers;
+    }
+
+    private String pageQuery(PageRequest request) {
+        return "SELECT c.id AS id, "
+                + "model, "
+                + "manufacturer_id, "
+                + "m.name AS manufacturer_name, "
+                + "m.country AS manufacturer_country "
+                + "FROM cars c"
+                + " JOIN manufacturers m ON c.manufacturer_id = m.id"
+                + " WHERE c.is_deleted = FALSE"
+                + (request.getManufacturerId() != null ? " AND c.manufacturer_id = ?" : "")
+                + (request.getPrefix() != null ? " AND c.model LIKE ?" : "")
+                + KeysetPaging.seekCondition(request, "c.id")
+                + KeysetPaging.orderAndLimit(request, "c.id");
+    }
+
+    private PreparedStatement bindPage(PreparedStatement statement, PageRequest request)
+            throws SQLException {
+        int index = 1;
+        if (request.getManufacturerId() != null) {
+            statement.setLong(index++, request.getManufacturerId());
+        }
+        if (request.getPrefix() != null) {
+            statement.setString(index++, KeysetPaging.likePrefix(request.getPrefix()));
+        }
+        if (KeysetPaging.seekId(request) != null) {
+            statement.setLong(index++, KeysetPaging.seekId(request));
+        }
+        statement.setInt(index, KeysetPaging.fetchSize(request));
+        return statement;
+    }
+
+    private DriverSummary parseDriverSummary(ResultSet resultSet) throws SQLException {
+        return new DriverSummary(resultSet.getObject("driver_id", Long.class),
+                resultSet.getNString("name"), resultSet.getNString("license_number"),
+                resultSet.getNString("login"));
     }
 
     private Driver parseDriverFromResultSet(ResultSet resultSet) throws SQLException {
-        Long driverId = resultSet.getObject("id", Long.class);
+        Driver driver = parseDriverProfile(resultSet);
+        driver.setPassword(resultSet.getNString("password"));
+        return driver;
+    }
+
+    /**
+     * Parses a driver without the password column, for queries that don't select it.
+     */
+    private Driver parseDriverProfile(ResultSet resultSet) throws SQLException {
+        Long driverId = resultSet.getObject("driver_id", Long.class);
         String name = resultSet.getNString("name");
         String licenseNumber = resultSet.getNString("license_number");
         String login = resultSet.getNString("login");
-        String password = resultSet.getNString("password");
 
         Driver driver = new Driver();
         driver.setId(driverId);
         driver.setName(name);
         driver.setLogin(login);
-        driver.setPassword(password);
         driver.setLicenseNumber(licenseNumber);
         return driver;
     }
@@ -280,4 +646,8 @@ public class CarDaoImpl implements CarDao {
         car.setManufacturer(manufacturer);
         return car;
     }
+
+    private interface RowHandler {
+        void handle(ResultSet resultSet) throws SQLException;
+    }
 }
@@ -0,0 +1,26 @@
+package taxi.dao;
+
+import java.util.List;
+import taxi.lib.EntityChangeEvent;
+import taxi.lib.EntityChangeListener;
+
+public interface ChangeOutboxDao {
+    /**
+     * Stores the events in the caller's transaction, so they commit or roll back with
+     * the changes they describe.
+     */
+    void saveAll(List<EntityChangeEvent> events);
+
+    /**
+     * Hands the changes saved after the given outbox id to the listener in batches
+     * of {@code batchSize} and returns the id of the last one, or {@code afterId}
+     * if there were none.
+     */
+    long replay(long afterId, int batchSize, EntityChangeListener listener);
+
+    /**
+     * Deletes the changes made before the given time, in milliseconds since the epoch,
+     * {@code batchSize} rows per statement, and returns how many were deleted.
+     */
+    long prune(long changedBefore, int batchSize);
+}
@@ -0,0 +1,100 @@
+package taxi.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.exception.DataProcessingException;
+import taxi.lib.Dao;
+import taxi.lib.EntityChangeEvent;
+import taxi.lib.EntityChangeListener;
+import taxi.util.ConnectionUtil;
+
+@Dao
+public class ChangeOutboxDaoImpl implements ChangeOutboxDao {
+    private static final int REPLAY_FETCH_SIZE = 1_000;
+    private static final Logger logger = LogManager.getLogger(ChangeOutboxDaoImpl.class);
+
+    @Override
+    public void saveAll(List<EntityChangeEvent> events) {
+        logger.debug("Method saveAll start.");
+        String query = "INSERT INTO entity_changes (entity, entity_id, operation, changed_at)"
+                + " VALUES (?, ?, ?, ?)";
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(query)) {
+            for (EntityChangeEvent event : events) {
+                statement.setString(1, event.getEntity());
+                statement.setLong(2, event.getId());
+                statement.setString(3, event.getOperation().name());
+                statement.setLong(4, event.getChangedAt());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            logger.debug("Save {} change events", events.size());
+        } catch (SQLException e) {
+            throw new DataProcessingException("Can't save " + events.size()
+                    + " change events", e);
+        }
+    }
+
+    @Override
+    public long replay(long afterId, int batchSize, EntityChangeListener listener) {
+        logger.debug("Method replay start.");
+        String query = "SELECT id, entity, entity_id, operation, changed_at"
+                + " FROM entity_changes WHERE id > ? ORDER BY id";
+        long lastId = afterId;
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(query,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(REPLAY_FETCH_SIZE);
+            statement.setLong(1, afterId);
+            ResultSet resultSet = statement.executeQuery();
+            List<EntityChangeEvent> batch = new ArrayList<>(batchSize);
+            while (resultSet.next()) {
+                batch.add(new EntityChangeEvent(resultSet.getString("entity"),
+                        resultSet.getLong("entity_id"),
+                        EntityChangeEvent.Operation.valueOf(resultSet.getString("operation")),
+                        resultSet.getLong("changed_at")));
+                lastId = resultSet.getLong("id");
+                if (batch.size() == batchSize) {
+                    listener.onChanges(List.copyOf(batch));
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                listener.onChanges(List.copyOf(batch));
+            }
+        } catch (SQLException e) {
+            throw new DataProcessingException("Can't replay change events after "
+                    + lastId, e);
+        }
+        logger.debug("Replay change events after {} up to {}", afterId, lastId);
+        return lastId;
+    }
+
+    @Override
+    public long prune(long changedBefore, int batchSize) {
+        logger.debug("Method prune start.");
+        String query = "DELETE FROM entity_changes WHERE changed_at < ? LIMIT ?";
+        long deleted = 0;
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setLong(1, changedBefore);
+            statement.setInt(2, batchSize);
+            int count;
+            do {
+                count = statement.executeUpdate();
+                deleted += count;
+            } while (count == batchSize);
+        } catch (SQLException e) {
+            throw new DataProcessingException("Can't prune change events before "
+                    + changedBefore, e);
+        }
+        logger.debug("Prune {} change events before {}", deleted, changedBefore);
+        return deleted;
+    }
+}
@@ -1,8 +1,22 @@
 package taxi.dao;
 
 import java.util.Optional;
+import taxi.model.Credentials;
 import taxi.model.Driver;
+import taxi.model.DriverSummary;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 
 public interface DriverDao extends GenericDao<Driver> {
     Optional<Driver> findByLogin(String login);
+
+    Page<DriverSummary> getSummaryPage(PageRequest request);
+
+    Optional<Credentials> findCredentialsByLogin(String login);
+
+    /**
+     * Stores a new password hash. {@link #update(Object)} leaves the password alone, so
+     * this is the only way to change it.
+     */
+    boolean updatePassword(Long id, String password);
 }
@@ -10,12 +10,23 @@ import java.util.List;
 import java.util.Optional;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import taxi.exception.DataProcessingException;
 import taxi.lib.Dao;
+import taxi.lib.EntityChangeEvent.Operation;
+import taxi.lib.EventBus;
+import taxi.model.Credentials;
 import taxi.model.Driver;
+import taxi.model.DriverSummary;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 import taxi.util.ConnectionUtil;
+import taxi.util.LogSummary;
+import taxi.util.TableVersions;
 
 @Dao
 public class DriverDaoImpl implements DriverDao {
+    private static final String COLUMNS = "id, name, license_number, login, password";
+    private static final String SUMMARY_COLUMNS = "id, name, license_number, login";
     private static final Logger logger = LogManager.getLogger(DriverDaoImpl.class);
 
     @Override
@@ -35,56 +46,124 @@ public class DriverDaoImpl implements DriverDao {
             if (resultSet.next()) {
                 driver.setId(resultSet.getObject(1, Long.class));
             }
-            logger.debug("Create driver: " + driver);
+            TableVersions.bump(TableVersions.DRIVERS);
+            EventBus.publish(TableVersions.DRIVERS, driver.getId(), Operation.CREATE);
+            logger.debug("Create driver with id: {}", driver.getId());
         } catch (SQLException e) {
-            logger.error("Couldn't create driver: " + driver + ". ", e);
+            throw new DataProcessingException("Couldn't create driver with login "
+                    + driver.getLogin(), e);
         }
         return driver;
     }
 
+    @Override
+    public List<Driver> createAll(List<Driver> drivers) {
+        logger.debug("Method createAll start.");
+        String query = "INSERT INTO drivers (name, license_number, login, password) "
+                + "VALUES (?, ?, ?, ?)";
+        try (Connection connection = ConnectionUtil.getConnection()) {
+            JdbcBatch.insert(connection, query, drivers, (statement, driver) -> {
+                statement.setString(1, driver.getName());
+                statement.setString(2, driver.getLicenseNumber());
+                statement.setString(3, driver.getLogin());
+                statement.setString(4, driver.getPassword());
+            }, Driver::setId);
+            TableVersions.bump(TableVersions.DRIVERS);
+            EventBus.publishAll(TableVersions.DRIVERS,
+                    drivers.stream().mapToLong(Driver::id).toArray(), Operation.CREATE);
+            logger.debug("Create {} drivers", drivers.size());
+        } catch (SQLException e) {
+            throw new DataProcessingException("Couldn't create " + drivers.size()
+                    + " drivers", e);
+        }
+        return drivers;
+    }
+
     @Override
     public Optional<Driver> get(Long id) {
         logger.debug("Method get start.");
-        String query = "SELECT * FROM drivers WHERE id = ? AND is_deleted = FALSE";
+        String query = "SELECT " + COLUMNS + " FROM drivers WHERE id = ? AND is_deleted = FALSE";
         Driver driver = null;
-        try (Connection connection = ConnectionUtil.getConnection();
+        try (Connection connection = ConnectionUtil.getReadOnlyConnection();
                 PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setLong(1, id);
             ResultSet resultSet = statement.executeQuery();
             if (resultSet.next()) {
                 driver = parseDriverFromResultSet(resultSet);
             }
-            logger.debug("Get driver: " + driver + " by id: " + id);
+            logger.debug("Get driver by id: {}, found: {}", id, driver != null);
         } catch (SQLException e) {
-            logger.debug("Couldn't get driver by id " + id, e);
+            logger.debug("Couldn't get driver by id {}", id, e);
         }
         return Optional.ofNullable(driver);
     }
 
     @Override
     public List<Driver> getAll() {
-        logger.debug("Method getФll start.");
-        String query = "SELECT * FROM drivers WHERE is_deleted = FALSE";
+        logger.debug("Method getAll start.");
+        String query = "SELECT " + COLUMNS + " FROM drivers WHERE is_deleted = FALSE";
         List<Driver> drivers = new ArrayList<>();
-        try (Connection connection = ConnectionUtil.getConnection();
+        try (Connection connection = ConnectionUtil.getReadOnlyConnection();
                 PreparedStatement statement = connection.prepareStatement(query)) {
             ResultSet resultSet = statement.executeQuery();
             while (resultSet.next()) {
                 drivers.add(parseDriverFromResultSet(resultSet));
             }
-            logger.debug("Get list drivers:");
-            drivers.forEach(logger::debug);
+            logger.debug("Get list drivers: {} items", drivers.size());
+            if (logger.isTraceEnabled()) {
+                logger.trace("Get list drivers: {}", LogSummary.of(drivers));
+            }
         } catch (SQLException e) {
             logger.error("Couldn't get a list of drivers from driversDB.", e);
         }
         return drivers;
     }
 
+    @Override
+    public Page<Driver> getPage(PageRequest request) {
+        logger.debug("Method getPage start.");
+        List<Driver> drivers = new ArrayList<>();
+        try (Connection connection = ConnectionUtil.getReadOnlyConnection();
+                PreparedStatement statement = connection.prepareStatement(
+                        pageQuery(COLUMNS, request))) {
+            ResultSet resultSet = bindPage(statement, request).executeQuery();
+            while (resultSet.next()) {
+                drivers.add(parseDriverFromResultSet(resultSet));
+            }
+        } catch (SQLException e) {
+            logger.error("Couldn't get a page of drivers for {}", request, e);
+        }
+        Page<Driver> page = KeysetPaging.toPage(drivers, request, Driver::getId);
+        logger.debug("Get {} for {}", page, request);
+        return page;
+    }
+
+    @Override
+    public Page<DriverSummary> getSummaryPage(PageRequest request) {
+        logger.debug("Method getSummaryPage start.");
+        List<DriverSummary> drivers = new ArrayList<>();
+        try (Connection connection = ConnectionUtil.getReadOnlyConnection();
+                PreparedStatement statement = connection.prepareStatement(
+                        pageQuery(SUMMARY_COLUMNS, request))) {
+            ResultSet resultSet = bindPage(statement, request).executeQuery();
+            while (resultSet.next()) {
+                drivers.add(new DriverSummary(resultSet.getObject("id", Long.class),
+                        resultSet.getString("name"), resultSet.getString("license_number"),
+                        resultSet.getNString("login")));
+            }
+        } catch (SQLException e) {
+            logger.error("Couldn't get a summary page of drivers for {}", request, e);
+        }
+        Page<DriverSummary> page = KeysetPaging.toPage(drivers, request, DriverSummary::getId);
+        logger.debug("Get {} for {}", page, request);
+        return page;
+    }
+
     @Override
     public Driver update(Driver driver) {
         logger.debug("Method update start.");
         String query = "UPDATE drivers "
-                + "SET name = ?, license_number = ?, login = ?, password = ? "
+                + "SET name = ?, license_number = ?, login = ? "
                 + "WHERE id = ? AND is_deleted = FALSE";
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement
@@ -92,12 +171,16 @@ public class DriverDaoImpl implements DriverDao {
             statement.setString(1, driver.getName());
             statement.setString(2, driver.getLicenseNumber());
             statement.setString(3, driver.getLogin());
-            statement.setString(4, driver.getPassword());
-            statement.setLong(5, driver.getId());
-            statement.executeUpdate();
-            logger.debug("Update driver: " + driver);
+            statement.setLong(4, driver.id());
+            boolean updated = statement.executeUpdate() > 0;
+            if (updated) {
+                TableVersions.bump(TableVersions.DRIVERS);
+                EventBus.publish(TableVersions.DRIVERS, driver.getId(), Operation.UPDATE);
+            }
+            logger.debug("Update driver with id: {} is {}", driver.getId(), updated);
         } catch (SQLException e) {
-            logger.error("Couldn't update " + driver + " in driversDB.", e);
+            throw new DataProcessingException("Couldn't update driver with id "
+                    + driver.getId(), e);
         }
         return driver;
     }
@@ -105,19 +188,44 @@ public class DriverDaoImpl implements DriverDao {
     @Override
     public boolean delete(Long id) {
         logger.debug("Method delete start.");
-        String query = "UPDATE drivers SET is_deleted = TRUE WHERE id = ?";
+        String query = "UPDATE drivers SET is_deleted = TRUE WHERE id = ?"
+                + " AND is_deleted = FALSE";
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setLong(1, id);
             boolean resultDeleted = statement.executeUpdate() > 0;
-            logger.debug("deleted by id: " + id + " is " + resultDeleted);
+            if (resultDeleted) {
+                TableVersions.bump(TableVersions.DRIVERS);
+                EventBus.publish(TableVersions.DRIVERS, id, Operation.DELETE);
+            }
+            logger.debug("deleted by id: {} is {}", id, resultDeleted);
             return resultDeleted;
         } catch (SQLException e) {
-            logger.error("Couldn't delete driver with id " + id, e);
+            logger.error("Couldn't delete driver with id {}", id, e);
             return false;
         }
     }
 
+    private String pageQuery(String columns, PageRequest request) {
+        return "SELECT " + columns + " FROM drivers WHERE is_deleted = FALSE"
+                + (request.getPrefix() != null ? " AND name LIKE ?" : "")
+                + KeysetPaging.seekCondition(request, "id")
+                + KeysetPaging.orderAndLimit(request, "id");
+    }
+
+    private PreparedStatement bindPage(PreparedStatement statement, PageRequest request)
+            throws SQLException {
+        int index = 1;
+        if (request.getPrefix() != null) {
+            statement.setString(index++, KeysetPaging.likePrefix(request.getPrefix()));
+        }
+        if (KeysetPaging.seekId(request) != null) {
+            statement.setLong(index++, KeysetPaging.seekId(request));
+        }
+        statement.setInt(index, KeysetPaging.fetchSize(request));
+        return statement;
+    }
+
     private Driver parseDriverFromResultSet(ResultSet resultSet) throws SQLException {
         Long id = resultSet.getObject("id", Long.class);
         String login = resultSet.getNString("login");
@@ -137,19 +245,61 @@ public class DriverDaoImpl implements DriverDao {
     @Override
     public Optional<Driver> findByLogin(String login) {
         logger.debug("Method findByLogin start.");
-        String query = "SELECT * FROM drivers WHERE login = ? AND is_deleted = FALSE";
+        String query = "SELECT " + COLUMNS
+                + " FROM drivers WHERE login = ? AND is_deleted = FALSE";
         Driver driver = null;
-        try (Connection connection = ConnectionUtil.getConnection();
+        try (Connection connection = ConnectionUtil.getReadOnlyConnection();
                 PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, login);
             ResultSet resultSet = statement.executeQuery();
             if (resultSet.next()) {
                 driver = parseDriverFromResultSet(resultSet);
             }
-            logger.debug("Get driver: " + driver + " by login: " + login);
+            logger.debug("Get driver by login: {}, found: {}", login, driver != null);
         } catch (SQLException e) {
-            logger.error("Couldn't get driver by login = " + login, e);
+            logger.error("Couldn't get driver by login = {}", login, e);
         }
         return Optional.ofNullable(driver);
     }
+
+    @Override
+    public Optional<Credentials> findCredentialsByLogin(String login) {
+        logger.debug("Method findCredentialsByLogin start.");
+        String query = "SELECT id, password FROM drivers WHERE login = ? AND is_deleted = FALSE";
+        Credentials credentials = null;
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setString(1, login);
+            ResultSet resultSet = statement.executeQuery();
+            if (resultSet.next()) {
+                credentials = new Credentials(resultSet.getObject("id", Long.class),
+                        resultSet.getNString("password"));
+            }
+            logger.debug("Get credentials by login: {}, found: {}", login, credentials != null);
+        } catch (SQLException e) {
+            throw new DataProcessingException("Couldn't get credentials by login " + login, e);
+        }
+        return Optional.ofNullable(credentials);
+    }
+
+    @Override
+    public boolean updatePassword(Long id, String password) {
+        logger.debug("Method updatePassword start.");
+        String query = "UPDATE drivers SET password = ? WHERE id = ? AND is_deleted = FALSE";
+        try (Connection connection = ConnectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setString(1, password);
+            statement.setLong(2, id);
+            boolean updated = statement.executeUpdate() > 0;
+            if (updated) {
+                TableVersions.bump(TableVersions.DRIVERS);
+                EventBus.publish(TableVersions.DRIVERS, id, Operation.UPDATE);
+            }
+            logger.debug("Update password of driver with id: {} is {}", id, updated);
+            return updated;
+        } catch (SQLException e) {
+            logger.error("Couldn't update password of driver with id {}", id, e);
+            return false;
+        }
+    }
 }
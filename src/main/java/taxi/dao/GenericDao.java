@@ -2,14 +2,20 @@ package taxi.dao;
 
 import java.util.List;
 import java.util.Optional;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 
 public interface GenericDao<T> {
     T create(T element);
 
+    List<T> createAll(List<T> elements);
+
     Optional<T> get(Long id);
 
     List<T> getAll();
 
+    Page<T> getPage(PageRequest request);
+
     T update(T element);
 
     boolean delete(Long id);
@@ -0,0 +1,92 @@
+package taxi.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import taxi.exception.BatchProcessingException;
+
+/**
+ * Runs one statement for every row of a list with {@code addBatch}/{@code executeBatch},
+ * flushing every {@value #BATCH_SIZE} rows. Must run inside a transaction: when a chunk
+ * fails it is rolled back and replayed row by row to find out which rows the database
+ * rejects, and the whole batch is reported as a {@link BatchProcessingException}.
+ */
+final class JdbcBatch {
+    static final int BATCH_SIZE = 1_000;
+
+    private JdbcBatch() {
+    }
+
+    static <T> void execute(Connection connection, String query, List<T> rows,
+            Binder<T> binder) throws SQLException {
+        insert(connection, query, rows, binder, null);
+    }
+
+    /**
+     * Same as {@link #execute} but also hands the generated key of every row to
+     * {@code idSetter}, in row order.
+     */
+    static <T> void insert(Connection connection, String query, List<T> rows,
+            Binder<T> binder, BiConsumer<T, Long> idSetter) throws SQLException {
+        if (connection.getAutoCommit()) {
+            throw new SQLException("Batch statements must run inside a transaction");
+        }
+        try (PreparedStatement statement = idSetter == null
+                ? connection.prepareStatement(query)
+                : connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+                List<T> chunk = rows.subList(from, Math.min(from + BATCH_SIZE, rows.size()));
+                Savepoint savepoint = connection.setSavepoint();
+                for (T row : chunk) {
+                    binder.bind(statement, row);
+                    statement.addBatch();
+                }
+                try {
+                    statement.executeBatch();
+                } catch (SQLException e) {
+                    statement.clearBatch();
+                    connection.rollback(savepoint);
+                    throw new BatchProcessingException("Batch rejected by the database", e,
+                            replay(statement, chunk, from, binder));
+                }
+                if (idSetter != null) {
+                    ResultSet keys = statement.getGeneratedKeys();
+                    for (T row : chunk) {
+                        if (!keys.next()) {
+                            throw new SQLException("Driver returned fewer generated keys "
+                                    + "than rows in the batch");
+                        }
+                        idSetter.accept(row, keys.getObject(1, Long.class));
+                    }
+                }
+                connection.releaseSavepoint(savepoint);
+            }
+        }
+    }
+
+    private static <T> Map<Integer, String> replay(PreparedStatement statement, List<T> chunk,
+            int from, Binder<T> binder) throws SQLException {
+        Map<Integer, String> rowErrors = new TreeMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            binder.bind(statement, chunk.get(i));
+            try {
+                statement.executeUpdate();
+            } catch (SQLException e) {
+                rowErrors.put(from + i, e.getMessage());
+            }
+        }
+        return rowErrors;
+    }
+
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement statement, T row) throws SQLException;
+    }
+}
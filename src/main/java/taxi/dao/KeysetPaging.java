@@ -0,0 +1,72 @@
+package taxi.dao;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import taxi.model.Page;
+import taxi.model.PageRequest;
+
+/**
+ * SQL fragments shared by the DAO page queries. A page is read by seeking past
+ * the cursor id on an id-ordered scan and fetching one extra row to learn whether
+ * another page follows.
+ */
+class KeysetPaging {
+    private KeysetPaging() {
+    }
+
+    static String seekCondition(PageRequest request, String idColumn) {
+        if (request.getBeforeId() != null) {
+            return " AND " + idColumn + " < ?";
+        }
+        if (request.getAfterId() != null) {
+            return " AND " + idColumn + " > ?";
+        }
+        return "";
+    }
+
+    static String orderAndLimit(PageRequest request, String idColumn) {
+        return " ORDER BY " + idColumn
+                + (request.getBeforeId() != null ? " DESC" : " ASC")
+                + " LIMIT ?";
+    }
+
+    static Long seekId(PageRequest request) {
+        return request.getBeforeId() != null ? request.getBeforeId() : request.getAfterId();
+    }
+
+    static int fetchSize(PageRequest request) {
+        return request.getSize() + 1;
+    }
+
+    static String likePrefix(String prefix) {
+        return prefix.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+    }
+
+    /**
+     * Builds a page from the rows of a query produced by {@link #orderAndLimit}.
+     *
+     * @param rows    up to {@code size + 1} rows in scan order
+     * @param request the request the rows were read for
+     * @param idOf    extracts the keyset id of a row
+     * @return the page in ascending id order
+     */
+    static <T> Page<T> toPage(List<T> rows, PageRequest request, Function<T, Long> idOf) {
+        boolean backward = request.getBeforeId() != null;
+        boolean hasMore = rows.size() > request.getSize();
+        List<T> items = hasMore ? rows.subList(0, request.getSize()) : rows;
+        if (backward) {
+            Collections.reverse(items);
+        }
+        if (items.isEmpty()) {
+            return new Page<>(items, null, null);
+        }
+        boolean hasPrevious = backward ? hasMore : request.getAfterId() != null;
+        boolean hasNext = backward || hasMore;
+        Long previousCursor = hasPrevious ? idOf.apply(items.get(0)) : null;
+        Long nextCursor = hasNext ? idOf.apply(items.get(items.size() - 1)) : null;
+        return new Page<>(items, previousCursor, nextCursor);
+    }
+}
@@ -10,9 +10,16 @@ import java.util.List;
 import java.util.Optional;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import taxi.exception.DataProcessingException;
 import taxi.lib.Dao;
+import taxi.lib.EntityChangeEvent.Operation;
+import taxi.lib.EventBus;
 import taxi.model.Manufacturer;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 import taxi.util.ConnectionUtil;
+import taxi.util.LogSummary;
+import taxi.util.TableVersions;
 
 @Dao
 public class ManufacturerDaoImpl implements ManufacturerDao {
@@ -30,28 +37,48 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
             if (resultSet.next()) {
                 manufacturer.setId(resultSet.getObject(1, Long.class));
             }
-            logger.debug("Create manufacturer: " + manufacturer);
+            TableVersions.bump(TableVersions.MANUFACTURERS);
+            EventBus.publish(TableVersions.MANUFACTURERS, manufacturer.getId(), Operation.CREATE);
+            logger.debug("Create manufacturer: {}", manufacturer);
         } catch (SQLException e) {
-            logger.error("Couldn't create manufacturer. " + manufacturer, e);
+            throw new DataProcessingException("Couldn't create manufacturer " + manufacturer, e);
         }
         return manufacturer;
     }
 
+    @Override
+    public List<Manufacturer> createAll(List<Manufacturer> manufacturers) {
+        logger.debug("Method createAll start.");
+        String query = "INSERT INTO manufacturers (name, country) VALUES (?,?)";
+        try (Connection connection = ConnectionUtil.getConnection()) {
+            JdbcBatch.insert(connection, query, manufacturers, this::setUpdate,
+                    Manufacturer::setId);
+            TableVersions.bump(TableVersions.MANUFACTURERS);
+            EventBus.publishAll(TableVersions.MANUFACTURERS, manufacturers.stream()
+                    .mapToLong(Manufacturer::id).toArray(), Operation.CREATE);
+            logger.debug("Create {} manufacturers", manufacturers.size());
+        } catch (SQLException e) {
+            throw new DataProcessingException("Couldn't create " + manufacturers.size()
+                    + " manufacturers", e);
+        }
+        return manufacturers;
+    }
+
     @Override
     public Optional<Manufacturer> get(Long id) {
         logger.debug("Method get start.");
         String query = "SELECT * FROM manufacturers WHERE id = ? AND is_deleted = FALSE";
         Manufacturer manufacturer = null;
-        try (Connection connection = ConnectionUtil.getConnection();
+        try (Connection connection = ConnectionUtil.getReadOnlyConnection();
                 PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setLong(1, id);
             ResultSet resultSet = statement.executeQuery();
             if (resultSet.next()) {
                 manufacturer = parseManufacturerFromResultSet(resultSet);
             }
-            logger.debug("Get manufacturer: " + manufacturer + " by id: " + id);
+            logger.debug("Get manufacturer: {} by id: {}", manufacturer, id);
         } catch (SQLException e) {
-            logger.error("Couldn't get manufacturer by id " + id, e);
+            logger.error("Couldn't get manufacturer by id {}", id, e);
         }
         return Optional.ofNullable(manufacturer);
     }
@@ -61,20 +88,53 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
         logger.debug("Method getAll start.");
         String query = "SELECT * FROM manufacturers WHERE is_deleted = FALSE";
         List<Manufacturer> manufacturers = new ArrayList<>();
-        try (Connection connection = ConnectionUtil.getConnection();
+        try (Connection connection = ConnectionUtil.getReadOnlyConnection();
                 PreparedStatement statement = connection.prepareStatement(query)) {
             ResultSet resultSet = statement.executeQuery();
             while (resultSet.next()) {
                 manufacturers.add(parseManufacturerFromResultSet(resultSet));
             }
-            logger.debug("Get all manufacturer:");
-            manufacturers.forEach(logger::debug);
+            logger.debug("Get all manufacturer: {} items", manufacturers.size());
+            if (logger.isTraceEnabled()) {
+                logger.trace("Get all manufacturer: {}", LogSummary.of(manufacturers));
+            }
         } catch (SQLException e) {
             logger.error("Couldn't get a list of manufacturers from manufacturers table. ", e);
         }
         return manufacturers;
     }
 
+    @Override
+    public Page<Manufacturer> getPage(PageRequest request) {
+        logger.debug("Method getPage start.");
+        String query = "SELECT * FROM manufacturers WHERE is_deleted = FALSE"
+                + (request.getPrefix() != null ? " AND name LIKE ?" : "")
+                + KeysetPaging.seekCondition(request, "id")
+                + KeysetPaging.orderAndLimit(request, "id");
+        List<Manufacturer> manufacturers = new ArrayList<>();
+        try (Connection connection = ConnectionUtil.getReadOnlyConnection();
+                PreparedStatement statement = connection.prepareStatement(query)) {
+            int index = 1;
+            if (request.getPrefix() != null) {
+                statement.setString(index++, KeysetPaging.likePrefix(request.getPrefix()));
+            }
+            if (KeysetPaging.seekId(request) != null) {
+                statement.setLong(index++, KeysetPaging.seekId(request));
+            }
+            statement.setInt(index, KeysetPaging.fetchSize(request));
+            ResultSet resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                manufacturers.add(parseManufacturerFromResultSet(resultSet));
+            }
+        } catch (SQLException e) {
+            logger.error("Couldn't get a page of manufacturers for {}", request, e);
+        }
+        Page<Manufacturer> page = KeysetPaging.toPage(manufacturers, request,
+                Manufacturer::getId);
+        logger.debug("Get {} for {}", page, request);
+        return page;
+    }
+
     @Override
     public Manufacturer update(Manufacturer manufacturer) {
         logger.debug("Method update start.");
@@ -83,11 +143,16 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement
                         = setUpdate(connection.prepareStatement(query), manufacturer)) {
-            statement.setLong(3, manufacturer.getId());
-            statement.executeUpdate();
-            logger.debug("Update manufacturer: " + manufacturer);
+            statement.setLong(3, manufacturer.id());
+            boolean updated = statement.executeUpdate() > 0;
+            if (updated) {
+                TableVersions.bump(TableVersions.MANUFACTURERS);
+                EventBus.publish(TableVersions.MANUFACTURERS, manufacturer.getId(),
+                        Operation.UPDATE);
+            }
+            logger.debug("Update manufacturer: {} is {}", manufacturer, updated);
         } catch (SQLException e) {
-            logger.error("Couldn't update a manufacturer " + manufacturer, e);
+            throw new DataProcessingException("Couldn't update manufacturer " + manufacturer, e);
         }
         return manufacturer;
     }
@@ -95,15 +160,20 @@ public class ManufacturerDaoImpl implements ManufacturerDao {
     @Override
     public boolean delete(Long id) {
         logger.debug("Method delete start.");
-        String query = "UPDATE manufacturers SET is_deleted = TRUE WHERE id = ?";
+        String query = "UPDATE manufacturers SET is_deleted = TRUE WHERE id = ?"
+                + " AND is_deleted = FALSE";
         try (Connection connection = ConnectionUtil.getConnection();
                 PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setLong(1, id);
             boolean resultDeleted = statement.executeUpdate() > 0;
-            logger.debug("deleted by id: " + id + " is " + resultDeleted);
+            if (resultDeleted) {
+                TableVersions.bump(TableVersions.MANUFACTURERS);
+                EventBus.publish(TableVersions.MANUFACTURERS, id, Operation.DELETE);
+            }
+            logger.debug("deleted by id: {} is {}", id, resultDeleted);
             return resultDeleted;
         } catch (SQLException e) {
-            logger.error("Couldn't delete a manufacturer by id " + id, e);
+            logger.error("Couldn't delete a manufacturer by id {}", id, e);
             return false;
         }
     }
@@ -0,0 +1,27 @@
+package taxi.dao;
+
+/**
+ * Rounds the length of variable IN and VALUES lists up to the next power of two,
+ * so a statement only ever has a handful of distinct SQL texts and stays in the
+ * statement caches. Callers fill the extra placeholders by repeating the last
+ * value of the list, which doesn't change the result.
+ */
+final class SqlBuckets {
+    private SqlBuckets() {
+    }
+
+    static int bucket(int size) {
+        return size <= 1 ? size : Integer.highestOneBit(size - 1) << 1;
+    }
+
+    static String placeholders(String placeholder, int count) {
+        StringBuilder builder = new StringBuilder(count * (placeholder.length() + 2));
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(placeholder);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,23 @@
+package taxi.exception;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class BatchProcessingException extends DataProcessingException {
+    private final Map<Integer, String> rowErrors;
+
+    public BatchProcessingException(String message, Throwable cause,
+            Map<Integer, String> rowErrors) {
+        super(message, cause);
+        this.rowErrors = Collections.unmodifiableMap(new TreeMap<>(rowErrors));
+    }
+
+    /**
+     * Returns the database error of every rejected element, keyed by the zero-based
+     * index of the element in the batch.
+     */
+    public Map<Integer, String> getRowErrors() {
+        return rowErrors;
+    }
+}
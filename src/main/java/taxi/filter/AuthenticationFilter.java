@@ -1,6 +1,8 @@
 package taxi.filter;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.HashSet;
 import java.util.Set;
 import javax.servlet.Filter;
@@ -10,12 +12,26 @@ import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
+import taxi.util.AppConfig;
+import taxi.util.AuthTokens;
 
-@WebFilter(urlPatterns = "/*")
+/**
+ * Resolves the signed-in driver from the auth cookie ({@code taxi.auth.mode=token}) or
+ * from an existing session, and exposes it as the {@code driver_id} request attribute.
+ * Neither mode creates a session. {@code /metrics} is also served without a driver to a
+ * scraper that sends {@code Authorization: Bearer <taxi.metrics.token>}.
+ */
+@WebFilter(urlPatterns = "/*", asyncSupported = true)
 public class AuthenticationFilter implements Filter {
+    public static final String DRIVER_ID = "driver_id";
+    private static final String METRICS_PATH = "/metrics";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final byte[] METRICS_TOKEN = AppConfig.get("taxi.metrics.token", "")
+            .getBytes(StandardCharsets.UTF_8);
     private final Set<String> allowedUrls = new HashSet<>();
 
     @Override
@@ -29,14 +45,58 @@ public class AuthenticationFilter implements Filter {
                          FilterChain filterChain) throws IOException, ServletException {
         HttpServletRequest req = (HttpServletRequest) request;
         HttpServletResponse resp = (HttpServletResponse) response;
-        HttpSession session = req.getSession();
 
-        Long driverId = (Long) session.getAttribute("driver_id");
+        Long driverId = AuthTokens.isEnabled() ? fromCookie(req) : fromSession(req);
         String servletPath = req.getServletPath();
+        if (driverId == null && METRICS_PATH.equals(servletPath) && hasMetricsToken(req)) {
+            filterChain.doFilter(req, resp);
+            return;
+        }
         if (driverId == null && !allowedUrls.contains(servletPath)) {
             resp.sendRedirect("/sign-in");
             return;
         }
+        req.setAttribute(DRIVER_ID, driverId);
         filterChain.doFilter(req, resp);
     }
+
+    /**
+     * Returns the signed-in driver of the request, also when called by a filter that
+     * runs before this one.
+     */
+    public static Long authenticatedDriverId(HttpServletRequest req) {
+        Long driverId = (Long) req.getAttribute(DRIVER_ID);
+        if (driverId != null) {
+            return driverId;
+        }
+        return AuthTokens.isEnabled() ? fromCookie(req) : fromSession(req);
+    }
+
+    private static boolean hasMetricsToken(HttpServletRequest req) {
+        String authorization = req.getHeader("Authorization");
+        if (METRICS_TOKEN.length == 0 || authorization == null
+                || !authorization.startsWith(BEARER_PREFIX)) {
+            return false;
+        }
+        return MessageDigest.isEqual(METRICS_TOKEN, authorization
+                .substring(BEARER_PREFIX.length()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Long fromCookie(HttpServletRequest req) {
+        Cookie[] cookies = req.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (AuthTokens.COOKIE_NAME.equals(cookie.getName())) {
+                return AuthTokens.verify(cookie.getValue());
+            }
+        }
+        return null;
+    }
+
+    private static Long fromSession(HttpServletRequest req) {
+        HttpSession session = req.getSession(false);
+        return session == null ? null : (Long) session.getAttribute(DRIVER_ID);
+    }
 }
@@ -0,0 +1,70 @@
+package taxi.filter;
+
+import java.io.IOException;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import taxi.util.MetricsRegistry;
+import taxi.util.OperationMetrics;
+
+@WebFilter(urlPatterns = "/*", asyncSupported = true)
+public class MetricsFilter implements Filter {
+    private static final int SERVER_ERROR = 500;
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response,
+                         FilterChain filterChain) throws IOException, ServletException {
+        HttpServletRequest req = (HttpServletRequest) request;
+        HttpServletResponse resp = (HttpServletResponse) response;
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(req, resp);
+            failed = false;
+        } finally {
+            OperationMetrics metrics = MetricsRegistry.http(req.getHttpServletMapping()
+                    .getPattern());
+            if (!failed && req.isAsyncStarted()) {
+                req.getAsyncContext().addListener(new AsyncMetricsListener(metrics, start));
+            } else {
+                metrics.record(System.nanoTime() - start,
+                        failed || resp.getStatus() >= SERVER_ERROR);
+            }
+        }
+    }
+
+    private static class AsyncMetricsListener implements AsyncListener {
+        private final OperationMetrics metrics;
+        private final long start;
+
+        private AsyncMetricsListener(OperationMetrics metrics, long start) {
+            this.metrics = metrics;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            HttpServletResponse resp = (HttpServletResponse) event.getSuppliedResponse();
+            metrics.record(System.nanoTime() - start, resp.getStatus() >= SERVER_ERROR);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
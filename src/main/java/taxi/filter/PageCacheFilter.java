@@ -0,0 +1,218 @@
+package taxi.filter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Map;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import taxi.util.AppConfig;
+import taxi.util.ConnectionUtil;
+import taxi.util.EntityCache;
+import taxi.util.TableVersions;
+
+/**
+ * Conditional GET and rendered page cache for the list pages. The ETag and
+ * Last-Modified of a page come from the versions of the tables it shows, so a
+ * revalidating browser gets 304 until one of them changes. Other requests are
+ * answered from the rendered HTML of the same URL at the same version when there is
+ * one, skipping the database and JSP rendering. With read replicas, pages of tables
+ * changed within the replica lag are not stored, as they may have been read from a
+ * replica that is still behind the version.
+ *
+ * <p>Last-Modified has whole-second precision, so a later write within the same second
+ * would carry the same date. It is therefore only sent, and If-Modified-Since only
+ * honored, once the second of the last write has passed; until then the ETag alone
+ * validates.
+ */
+@WebFilter(urlPatterns = {"/cars", "/drivers", "/manufacturers"}, asyncSupported = true)
+public class PageCacheFilter implements Filter {
+    private static final String CACHE_PROPERTY_PREFIX = "taxi.cache.pages.";
+    private static final int MAX_PAGE_CHARS = 512 * 1024;
+    private static final int OK = 200;
+    private static final Map<String, String[]> tablesByPath = Map.of(
+            "/cars", new String[] {TableVersions.CARS, TableVersions.DRIVERS,
+                    TableVersions.MANUFACTURERS},
+            "/drivers", new String[] {TableVersions.DRIVERS},
+            "/manufacturers", new String[] {TableVersions.MANUFACTURERS});
+    private final EntityCache<String, CachedPage> cache = new EntityCache<>("pages",
+            AppConfig.getInt(CACHE_PROPERTY_PREFIX + "maxSize", 1_000),
+            AppConfig.getLong(CACHE_PROPERTY_PREFIX + "ttlMillis", 60_000));
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response,
+                         FilterChain filterChain) throws IOException, ServletException {
+        HttpServletRequest req = (HttpServletRequest) request;
+        HttpServletResponse resp = (HttpServletResponse) response;
+        String[] tables = tablesByPath.get(req.getServletPath());
+        if (tables == null || !"GET".equals(req.getMethod())
+                || AuthenticationFilter.authenticatedDriverId(req) == null) {
+            filterChain.doFilter(req, resp);
+            return;
+        }
+        long version = TableVersions.getVersion(tables);
+        String etag = "\"" + Long.toHexString(TableVersions.getStartedAt()) + "-" + version + "\"";
+        long lastModified = TableVersions.getLastModified(tables) / 1000 * 1000;
+        if (System.currentTimeMillis() < lastModified + 1000) {
+            lastModified = -1;
+        }
+        resp.setHeader("ETag", etag);
+        if (lastModified >= 0) {
+            resp.setDateHeader("Last-Modified", lastModified);
+        }
+        resp.setHeader("Cache-Control", "private, no-cache");
+        if (isNotModified(req, etag, lastModified)) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        String key = req.getServletPath() + "?"
+                + (req.getQueryString() == null ? "" : req.getQueryString()) + "#" + version;
+        CachedPage page = cache.getIfPresent(key);
+        if (page != null) {
+            resp.setContentType(page.contentType);
+            resp.getWriter().write(page.body);
+            return;
+        }
+        CapturingResponse capturing = new CapturingResponse(resp, !ConnectionUtil.hasReplicas()
+                || System.currentTimeMillis() - TableVersions.getLastModified(tables)
+                        >= ConnectionUtil.getReplicaStickySeconds() * 1000L);
+        filterChain.doFilter(req, capturing);
+        if (req.isAsyncStarted()) {
+            req.getAsyncContext().addListener(new StoreOnCompleteListener(key, capturing));
+        } else {
+            store(key, capturing);
+        }
+    }
+
+    private boolean isNotModified(HttpServletRequest req, String etag, long lastModified) {
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return ifNoneMatch.equals(etag) || ifNoneMatch.equals("W/" + etag);
+        }
+        if (lastModified < 0) {
+            return false;
+        }
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = req.getDateHeader("If-Modified-Since");
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return ifModifiedSince >= lastModified;
+    }
+
+    private void store(String key, CapturingResponse capturing) {
+        String body = capturing.getCapturedBody();
+        if (capturing.getStatus() == OK && body != null) {
+            cache.put(key, new CachedPage(capturing.getContentType(), body));
+        }
+    }
+
+    private static class CachedPage {
+        private final String contentType;
+        private final String body;
+
+        private CachedPage(String contentType, String body) {
+            this.contentType = contentType;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Passes the page through to the client while keeping a copy of it, unless it is
+     * written as bytes or grows beyond {@value #MAX_PAGE_CHARS} characters.
+     */
+    private static class CapturingResponse extends HttpServletResponseWrapper {
+        private final StringBuilder captured = new StringBuilder();
+        private PrintWriter writer;
+        private boolean cacheable;
+
+        private CapturingResponse(HttpServletResponse response, boolean cacheable) {
+            super(response);
+            this.cacheable = cacheable;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new TeeWriter(super.getWriter()));
+            }
+            return writer;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            cacheable = false;
+            return super.getOutputStream();
+        }
+
+        private String getCapturedBody() {
+            return cacheable && writer != null ? captured.toString() : null;
+        }
+
+        private class TeeWriter extends Writer {
+            private final Writer out;
+
+            private TeeWriter(Writer out) {
+                this.out = out;
+            }
+
+            @Override
+            public void write(char[] buffer, int offset, int length) throws IOException {
+                out.write(buffer, offset, length);
+                if (cacheable && captured.length() + length <= MAX_PAGE_CHARS) {
+                    captured.append(buffer, offset, length);
+                } else {
+                    cacheable = false;
+                }
+            }
+
+            @Override
+            public void flush() throws IOException {
+                out.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                out.close();
+            }
+        }
+    }
+
+    private class StoreOnCompleteListener implements AsyncListener {
+        private final String key;
+        private final CapturingResponse capturing;
+
+        private StoreOnCompleteListener(String key, CapturingResponse capturing) {
+            this.key = key;
+            this.capturing = capturing;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            store(key, capturing);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package taxi.filter;
+
+import java.io.IOException;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import taxi.util.ConnectionUtil;
+import taxi.util.RoutingDataSource;
+
+/**
+ * Opens the read routing scope of a request when replicas are configured. A request
+ * that used the primary and redirects also sets a short-lived cookie, so the page it
+ * redirects to reads from the primary too and shows the change even if the replicas
+ * lag ({@code taxi.db.replica.stickySeconds}, 5 by default).
+ */
+@WebFilter(urlPatterns = "/*", asyncSupported = true)
+public class ReplicaRoutingFilter implements Filter {
+    private static final String COOKIE_NAME = "taxi_primary";
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response,
+                         FilterChain filterChain) throws IOException, ServletException {
+        if (!ConnectionUtil.hasReplicas()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        HttpServletRequest req = (HttpServletRequest) request;
+        HttpServletResponse resp = (HttpServletResponse) response;
+        RoutingDataSource.beginRequest(hasStickyCookie(req));
+        try {
+            filterChain.doFilter(req, new StickyPrimaryResponse(req, resp));
+        } finally {
+            RoutingDataSource.endRequest();
+        }
+    }
+
+    private boolean hasStickyCookie(HttpServletRequest req) {
+        Cookie[] cookies = req.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE_NAME.equals(cookie.getName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static class StickyPrimaryResponse extends HttpServletResponseWrapper {
+        private final HttpServletRequest req;
+
+        private StickyPrimaryResponse(HttpServletRequest req, HttpServletResponse response) {
+            super(response);
+            this.req = req;
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            if (RoutingDataSource.isPrimaryUsed()) {
+                Cookie cookie = new Cookie(COOKIE_NAME, "1");
+                cookie.setHttpOnly(true);
+                cookie.setPath(req.getContextPath() + "/");
+                cookie.setMaxAge(ConnectionUtil.getReplicaStickySeconds());
+                addCookie(cookie);
+            }
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package taxi.lib;
+
+/**
+ * A committed write to one row. {@code entity} is the table name, as in
+ * {@code TableVersions}; changes to a car's drivers are updates of the car.
+ */
+public final class EntityChangeEvent {
+    private final String entity;
+    private final long id;
+    private final Operation operation;
+    private final long changedAt;
+
+    public EntityChangeEvent(String entity, long id, Operation operation, long changedAt) {
+        this.entity = entity;
+        this.id = id;
+        this.operation = operation;
+        this.changedAt = changedAt;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public long getChangedAt() {
+        return changedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "EntityChangeEvent{"
+                + "entity='" + entity + '\''
+                + ", id=" + id
+                + ", operation=" + operation
+                + ", changedAt=" + changedAt
+                + '}';
+    }
+
+    public enum Operation {
+        CREATE, UPDATE, DELETE
+    }
+}
@@ -0,0 +1,16 @@
+package taxi.lib;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface EntityChangeListener {
+    /**
+     * Receives the next batch of changes. Listeners added with
+     * {@link EventBus#subscribe} get committed changes in commit order on the event bus
+     * thread, one batch at a time. Listeners added with
+     * {@link EventBus#subscribeInTransaction} are called on the writer's request thread
+     * inside its transaction, before the change has committed, and an exception they
+     * throw rolls the write back.
+     */
+    void onChanges(List<EntityChangeEvent> events);
+}
@@ -0,0 +1,184 @@
+package taxi.lib;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.util.AppConfig;
+import taxi.util.TransactionManager;
+
+/**
+ * In-process stream of entity changes. DAO write methods call {@link #publish} or
+ * {@link #publishAll} inside the transaction of the write.
+ *
+ * <p>Listeners added with {@link #subscribeInTransaction} run right away on the
+ * writer's thread and share its transaction, so what they store commits or rolls back
+ * with the change; the change outbox is one. Every write has to run in a
+ * {@link TransactionManager} transaction while such a listener is subscribed.
+ *
+ * <p>Listeners added with {@link #subscribe} only see committed changes. The events are
+ * queued once the transaction has committed, and one daemon thread drains the bounded
+ * queue ({@code taxi.events.queueSize}) in batches of up to {@code taxi.events.batchSize}
+ * and hands every batch to each listener in turn, so these listeners never run on the
+ * request thread. {@code taxi.events.lingerMillis} (0 by default) lets a batch fill for
+ * that long before it is delivered, trading delivery latency for fewer wake-ups under a
+ * steady stream of writes. When the queue is full the writer doesn't wait: the event is
+ * dropped and counted, and listeners that can't afford a gap have to replay the outbox.
+ */
+public final class EventBus {
+    private static final String PROPERTY_PREFIX = "taxi.events.";
+    private static final int QUEUE_SIZE = AppConfig.getInt(PROPERTY_PREFIX + "queueSize", 8192);
+    private static final int BATCH_SIZE = AppConfig.getInt(PROPERTY_PREFIX + "batchSize", 256);
+    private static final long LINGER_MILLIS =
+            AppConfig.getLong(PROPERTY_PREFIX + "lingerMillis", 0);
+    private static final BlockingQueue<EntityChangeEvent> queue =
+            new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private static final List<EntityChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private static final List<EntityChangeListener> transactionalListeners =
+            new CopyOnWriteArrayList<>();
+    private static final LongAdder published = new LongAdder();
+    private static final LongAdder dropped = new LongAdder();
+    private static final AtomicLong droppedSinceReport = new AtomicLong();
+    private static final Logger logger = LogManager.getLogger(EventBus.class);
+    private static Thread dispatcher;
+
+    private EventBus() {
+    }
+
+    /**
+     * Does nothing until a listener has subscribed.
+     */
+    public static void publish(String entity, long id, EntityChangeEvent.Operation operation) {
+        publishAll(entity, new long[] {id}, operation);
+    }
+
+    /**
+     * Publishes the same change of several entities, so transactional listeners get
+     * them as one batch.
+     *
+     * @throws IllegalStateException if a transactional listener is subscribed and no
+     *         transaction is active
+     */
+    public static void publishAll(String entity, long[] ids,
+                                  EntityChangeEvent.Operation operation) {
+        if (ids.length == 0 || listeners.isEmpty() && transactionalListeners.isEmpty()) {
+            return;
+        }
+        long changedAt = System.currentTimeMillis();
+        List<EntityChangeEvent> events = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            events.add(new EntityChangeEvent(entity, id, operation, changedAt));
+        }
+        if (!transactionalListeners.isEmpty()) {
+            if (!TransactionManager.isActive()) {
+                throw new IllegalStateException("Changes of " + entity
+                        + " are written outside a transaction");
+            }
+            for (EntityChangeListener listener : transactionalListeners) {
+                listener.onChanges(events);
+            }
+        }
+        if (!listeners.isEmpty()) {
+            TransactionManager.afterCommit(() -> events.forEach(EventBus::offer));
+        }
+    }
+
+    /**
+     * Adds a listener that is called on the writer's thread inside its transaction. An
+     * exception it throws fails the write and rolls the transaction back.
+     */
+    public static void subscribeInTransaction(EntityChangeListener listener) {
+        transactionalListeners.add(listener);
+    }
+
+    public static synchronized void subscribe(EntityChangeListener listener) {
+        listeners.add(listener);
+        if (dispatcher == null) {
+            dispatcher = new Thread(EventBus::dispatch, "taxi-events");
+            dispatcher.setDaemon(true);
+            dispatcher.start();
+        }
+    }
+
+    /**
+     * Delivers the events still queued, stops the dispatcher thread and removes
+     * all listeners.
+     */
+    public static synchronized void shutdown() {
+        transactionalListeners.clear();
+        if (dispatcher == null) {
+            return;
+        }
+        dispatcher.interrupt();
+        try {
+            dispatcher.join(1_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dispatcher = null;
+        listeners.clear();
+    }
+
+    public static long getPublished() {
+        return published.sum();
+    }
+
+    public static long getDropped() {
+        return dropped.sum();
+    }
+
+    public static int getQueued() {
+        return queue.size();
+    }
+
+    private static void offer(EntityChangeEvent event) {
+        if (queue.offer(event)) {
+            published.increment();
+        } else {
+            dropped.increment();
+            droppedSinceReport.incrementAndGet();
+        }
+    }
+
+    private static void dispatch() {
+        List<EntityChangeEvent> batch = new ArrayList<>(BATCH_SIZE);
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+                if (LINGER_MILLIS > 0 && queue.size() < BATCH_SIZE - 1) {
+                    Thread.sleep(LINGER_MILLIS);
+                }
+                queue.drainTo(batch, BATCH_SIZE - 1);
+            } catch (InterruptedException e) {
+                running = false;
+                queue.drainTo(batch);
+            }
+            if (!batch.isEmpty()) {
+                deliver(List.copyOf(batch));
+                batch.clear();
+            }
+            long lost = droppedSinceReport.getAndSet(0);
+            if (lost > 0) {
+                logger.warn("Dropped {} change events, the queue of {} was full",
+                        lost, QUEUE_SIZE);
+            }
+        }
+    }
+
+    private static void deliver(List<EntityChangeEvent> events) {
+        for (EntityChangeListener listener : listeners) {
+            try {
+                listener.onChanges(events);
+            } catch (RuntimeException e) {
+                logger.error("Listener {} failed on {} change events", listener,
+                        events.size(), e);
+            }
+        }
+    }
+}
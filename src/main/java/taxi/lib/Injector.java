@@ -1,85 +1,116 @@
 package taxi.lib;
 
-import java.io.File;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import taxi.util.MetricsRegistry;
 
+/**
+ * Resolves every {@link Service} and {@link Dao} class of a package into one singleton
+ * per class when the injector is created. Dao instances are exposed through a proxy
+ * that times every call. Lookups afterwards only read an immutable
+ * interface-to-instance index, and a broken component graph fails when the injector is
+ * built instead of on the first request that needs it. Callback interfaces of this
+ * package, such as {@link EntityChangeListener}, may be implemented by any number of
+ * components; they are not indexed and are found with {@link #getAll(Class)}.
+ */
 public class Injector {
-    private static final Map<String, Injector> injectors = new HashMap<>();
-    private final Map<Class<?>, Object> instanceOfClasses = new HashMap<>();
-    private final List<Class<?>> classes = new ArrayList<>();
+    private static final Map<String, Injector> injectors = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Object> instances;
+    private final List<Object> components;
 
     private Injector(String mainPackageName) {
+        List<Class<?>> componentClasses;
         try {
-            classes.addAll(getClasses(mainPackageName));
+            componentClasses = getClasses(mainPackageName);
         } catch (IOException | ClassNotFoundException e) {
             throw new RuntimeException("Can't get information about all classes", e);
         }
+        Map<Class<?>, Object> index = new HashMap<>();
+        Map<Object, Object> targets = new IdentityHashMap<>();
+        List<Object> created = new ArrayList<>(componentClasses.size());
+        for (Class<?> component : componentClasses) {
+            Object instance = createInstance(component);
+            created.add(instance);
+            for (Class<?> singleInterface : component.getInterfaces()) {
+                if (singleInterface.getPackage() == Injector.class.getPackage()) {
+                    continue;
+                }
+                Object exposed = component.isAnnotationPresent(Dao.class)
+                        ? MetricsRegistry.timedDao(singleInterface, instance) : instance;
+                targets.put(exposed, instance);
+                Object previous = index.put(singleInterface, exposed);
+                if (previous != null) {
+                    throw new RuntimeException("Interface " + singleInterface.getName()
+                            + " is implemented by both " + targets.get(previous).getClass()
+                            .getName() + " and " + component.getName());
+                }
+            }
+        }
+        for (Object instance : created) {
+            injectFields(instance, index);
+        }
+        instances = Map.copyOf(index);
+        components = List.copyOf(created);
     }
 
     public static Injector getInstance(String mainPackageName) {
-        if (injectors.containsKey(mainPackageName)) {
-            return injectors.get(mainPackageName);
-        }
-        Injector injector = new Injector(mainPackageName);
-        injectors.put(mainPackageName, injector);
-        return injector;
+        return injectors.computeIfAbsent(mainPackageName, Injector::new);
     }
 
     public Object getInstance(Class<?> certainInterface) {
-        Object newInstanceOfClass = null;
-        Class<?> clazz = findClassExtendingInterface(certainInterface);
-        Object instanceOfCurrentClass = createInstance(clazz);
-        Field[] declaredFields = clazz.getDeclaredFields();
-        for (Field field : declaredFields) {
-            if (isFieldInitialized(field, instanceOfCurrentClass)) {
-                continue;
-            }
-            if (field.getDeclaredAnnotation(Inject.class) != null) {
-                Object classToInject = getInstance(field.getType());
-                newInstanceOfClass = getNewInstance(clazz);
-                setValueToField(field, newInstanceOfClass, classToInject);
-            } else {
-                throw new RuntimeException("Class " + field.getName() + " in class "
-                        + clazz.getName() + " hasn't annotation Inject");
-            }
+        Object instance = instances.get(certainInterface);
+        if (instance == null) {
+            throw new RuntimeException("Can't find class which implements "
+                    + certainInterface.getName()
+                    + " interface and has valid annotation (Dao or Service)");
         }
-        if (newInstanceOfClass == null) {
-            return getNewInstance(clazz);
-        }
-        return newInstanceOfClass;
+        return instance;
     }
 
-    private Class<?> findClassExtendingInterface(Class<?> certainInterface) {
-        for (Class<?> clazz : classes) {
-            Class<?>[] interfaces = clazz.getInterfaces();
-            for (Class<?> singleInterface : interfaces) {
-                if (singleInterface.equals(certainInterface)
-                        && (clazz.isAnnotationPresent(Service.class)
-                        || clazz.isAnnotationPresent(Dao.class))) {
-                    return clazz;
-                }
+    /**
+     * Returns every component that implements the given type, in the order of the component index.
+     */
+    public <T> List<T> getAll(Class<T> type) {
+        List<T> matching = new ArrayList<>();
+        for (Object component : components) {
+            if (type.isInstance(component)) {
+                matching.add(type.cast(component));
             }
         }
-        throw new RuntimeException("Can't find class which implements "
-                + certainInterface.getName()
-                + " interface and has valid annotation (Dao or Service)");
+        return matching;
     }
 
-    private Object getNewInstance(Class<?> certainClass) {
-        if (instanceOfClasses.containsKey(certainClass)) {
-            return instanceOfClasses.get(certainClass);
+    private void injectFields(Object instance, Map<Class<?>, Object> index) {
+        Class<?> clazz = instance.getClass();
+        for (Field field : clazz.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || isFieldInitialized(field, instance)) {
+                continue;
+            }
+            if (field.getDeclaredAnnotation(Inject.class) == null) {
+                throw new RuntimeException("Class " + field.getName() + " in class "
+                        + clazz.getName() + " hasn't annotation Inject");
+            }
+            Object classToInject = index.get(field.getType());
+            if (classToInject == null) {
+                throw new RuntimeException("Can't inject field " + field.getName()
+                        + " of class " + clazz.getName() + ": no Dao or Service implements "
+                        + field.getType().getName());
+            }
+            setValueToField(field, instance, classToInject);
         }
-        Object newInstance = createInstance(certainClass);
-        instanceOfClasses.put(certainClass, newInstance);
-        return newInstance;
     }
 
     private boolean isFieldInitialized(Field field, Object instance) {
@@ -110,62 +141,39 @@ public class Injector {
             throw new RuntimeException("Can't set value to field ", e);
         }
     }
+
     /**
-     * Scans all classes accessible from the context class loader which
-     * belong to the given package and subpackages.
+     * Loads the component classes of the given package and subpackages listed in
+     * the index written by {@link ComponentIndexProcessor}. Classes are not initialized.
      *
      * @param packageName The base package
      * @return The classes
      * @throws ClassNotFoundException if the class cannot be located
      * @throws IOException            if I/O errors occur
      */
-
     private static List<Class<?>> getClasses(String packageName)
             throws IOException, ClassNotFoundException {
         ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
         if (classLoader == null) {
             throw new RuntimeException("Class loader is null");
         }
-        String path = packageName.replace('.', '/');
-        Enumeration<URL> resources = classLoader.getResources(path);
-        List<File> dirs = new ArrayList<>();
-        while (resources.hasMoreElements()) {
-            URL resource = resources.nextElement();
-            dirs.add(new File(resource.getFile()));
+        Enumeration<URL> indexes =
+                classLoader.getResources(ComponentIndexProcessor.INDEX_LOCATION);
+        if (!indexes.hasMoreElements()) {
+            throw new RuntimeException("Can't find component index "
+                    + ComponentIndexProcessor.INDEX_LOCATION
+                    + ", compile the project with ComponentIndexProcessor");
         }
-        ArrayList<Class<?>> classes = new ArrayList<>();
-        for (File directory : dirs) {
-            classes.addAll(findClasses(directory, packageName));
-        }
-        return classes;
-    }
-    /**
-     * Recursive method used to find all classes in a given directory and subdirs.
-     *
-     * @param directory   The base directory
-     * @param packageName The package name for classes found inside the base directory
-     * @return The classes
-     * @throws ClassNotFoundException if the class cannot be located
-     */
-
-    private static List<Class<?>> findClasses(File directory, String packageName)
-            throws ClassNotFoundException {
         List<Class<?>> classes = new ArrayList<>();
-        if (!directory.exists()) {
-            return classes;
-        }
-        File[] files = directory.listFiles();
-        if (files != null) {
-            for (File file : files) {
-                if (file.isDirectory()) {
-                    if (file.getName().contains(".")) {
-                        throw new RuntimeException("File name shouldn't consist point.");
+        while (indexes.hasMoreElements()) {
+            URL index = indexes.nextElement();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+                String className;
+                while ((className = reader.readLine()) != null) {
+                    if (className.startsWith(packageName + ".")) {
+                        classes.add(Class.forName(className, false, classLoader));
                     }
-                    classes.addAll(findClasses(file, packageName + "."
-                            + file.getName()));
-                } else if (file.getName().endsWith(".class")) {
-                    classes.add(Class.forName(packageName + '.'
-                            + file.getName().substring(0, file.getName().length() - 6)));
                 }
             }
         }
@@ -0,0 +1,78 @@
+package taxi.listener;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.dao.ChangeOutboxDao;
+import taxi.lib.EntityChangeListener;
+import taxi.lib.EventBus;
+import taxi.lib.Injector;
+import taxi.service.DriverCarIndex;
+import taxi.util.AppConfig;
+import taxi.util.Bulkhead;
+import taxi.util.ConnectionUtil;
+import taxi.util.SchemaMigrator;
+
+@WebListener
+public class ApplicationListener implements ServletContextListener {
+    private static final String OUTBOX_PROPERTY_PREFIX = "taxi.events.outbox.";
+    private static final int PRUNE_BATCH_SIZE = 10_000;
+    private static final Logger logger = LogManager.getLogger(ApplicationListener.class);
+    private ScheduledExecutorService outboxPruner;
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        SchemaMigrator.migrate();
+        Injector injector = Injector.getInstance("taxi");
+        ((DriverCarIndex) injector.getInstance(DriverCarIndex.class)).reload();
+        for (EntityChangeListener listener : injector.getAll(EntityChangeListener.class)) {
+            EventBus.subscribe(listener);
+        }
+        if (AppConfig.getBoolean(OUTBOX_PROPERTY_PREFIX + "enabled", false)) {
+            ChangeOutboxDao outbox = (ChangeOutboxDao) injector.getInstance(ChangeOutboxDao.class);
+            EventBus.subscribeInTransaction(outbox::saveAll);
+            schedulePruning(outbox);
+        }
+    }
+
+    /**
+     * Deletes outbox rows older than {@code taxi.events.outbox.retentionHours} (168)
+     * every {@code taxi.events.outbox.pruneMinutes} (60), so the table only holds the
+     * window listeners can still replay.
+     */
+    private void schedulePruning(ChangeOutboxDao outbox) {
+        long retentionMillis = TimeUnit.HOURS.toMillis(
+                AppConfig.getLong(OUTBOX_PROPERTY_PREFIX + "retentionHours", 168));
+        long periodMinutes = AppConfig.getLong(OUTBOX_PROPERTY_PREFIX + "pruneMinutes", 60);
+        outboxPruner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "taxi-outbox-pruner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        outboxPruner.scheduleWithFixedDelay(() -> {
+            try {
+                long deleted = outbox.prune(System.currentTimeMillis() - retentionMillis,
+                        PRUNE_BATCH_SIZE);
+                logger.info("Pruned {} change events from the outbox", deleted);
+            } catch (RuntimeException e) {
+                logger.error("Couldn't prune the change outbox", e);
+            }
+        }, periodMinutes, periodMinutes, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        if (outboxPruner != null) {
+            outboxPruner.shutdownNow();
+        }
+        Bulkhead.shutdownAll();
+        EventBus.shutdown();
+        ConnectionUtil.shutdown();
+        LogManager.shutdown();
+    }
+}
@@ -4,8 +4,14 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
+/**
+ * Ids are kept as primitives, with 0 standing for "not saved yet", so a cached
+ * fleet doesn't carry a boxed Long per entity. See {@link EntityEquality} for how
+ * cars compare.
+ */
 public class Car {
-    private Long id;
+    private static final long NO_ID = 0;
+    private long id;
     private String model;
     private Manufacturer manufacturer;
     private List<Driver> drivers;
@@ -19,12 +25,19 @@ public class Car {
         drivers = new ArrayList<>();
     }
 
-    public Long getId() {
+    /**
+     * Returns the id without boxing it, 0 while the car isn't saved.
+     */
+    public long id() {
         return id;
     }
 
+    public Long getId() {
+        return id == NO_ID ? null : id;
+    }
+
     public void setId(Long id) {
-        this.id = id;
+        this.id = id == null ? NO_ID : id;
     }
 
     public String getModel() {
@@ -51,10 +64,18 @@ public class Car {
         this.drivers = drivers;
     }
 
+    public long[] getDriverIds() {
+        long[] driverIds = new long[drivers.size()];
+        for (int i = 0; i < driverIds.length; i++) {
+            driverIds[i] = drivers.get(i).id();
+        }
+        return driverIds;
+    }
+
     @Override
     public String toString() {
         return "Car{"
-                + "id=" + id
+                + "id=" + getId()
                 + ", model='" + model + '\''
                 + ", manufacturer=" + manufacturer
                 + ", drivers=" + drivers
@@ -70,13 +91,19 @@ public class Car {
             return false;
         }
         Car car = (Car) o;
-        return Objects.equals(id, car.id) && Objects.equals(model, car.model)
+        if (EntityEquality.byId(id)) {
+            return id == car.id;
+        }
+        return id == car.id && Objects.equals(model, car.model)
                 && Objects.equals(manufacturer, car.manufacturer)
                 && Objects.equals(drivers, car.drivers);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, model, manufacturer, drivers);
+        if (EntityEquality.byId(id)) {
+            return Long.hashCode(id);
+        }
+        return 31 * Long.hashCode(id) + Objects.hash(model, manufacturer, drivers);
     }
 }
@@ -0,0 +1,68 @@
+package taxi.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Read-only view of a car for list pages: the manufacturer flattened into the row and
+ * the drivers as summaries.
+ */
+public class CarListRow {
+    private final Long id;
+    private final String model;
+    private final String manufacturerName;
+    private final String manufacturerCountry;
+    private final List<DriverSummary> drivers;
+
+    public CarListRow(Long id, String model, String manufacturerName,
+                      String manufacturerCountry, List<DriverSummary> drivers) {
+        this.id = id;
+        this.model = model;
+        this.manufacturerName = manufacturerName;
+        this.manufacturerCountry = manufacturerCountry;
+        this.drivers = drivers;
+    }
+
+    public CarListRow(Long id, String model, String manufacturerName,
+                      String manufacturerCountry) {
+        this(id, model, manufacturerName, manufacturerCountry, new ArrayList<>());
+    }
+
+    public static CarListRow of(Car car) {
+        return new CarListRow(car.getId(), car.getModel(), car.getManufacturer().getName(),
+                car.getManufacturer().getCountry(), car.getDrivers().stream()
+                        .map(DriverSummary::of)
+                        .collect(Collectors.toList()));
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public String getManufacturerName() {
+        return manufacturerName;
+    }
+
+    public String getManufacturerCountry() {
+        return manufacturerCountry;
+    }
+
+    public List<DriverSummary> getDrivers() {
+        return drivers;
+    }
+
+    @Override
+    public String toString() {
+        return "CarListRow{"
+                + "id=" + id
+                + ", model='" + model + '\''
+                + ", manufacturerName='" + manufacturerName + '\''
+                + ", drivers=" + drivers.size()
+                + '}';
+    }
+}
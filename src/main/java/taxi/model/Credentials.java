@@ -0,0 +1,24 @@
+package taxi.model;
+
+public class Credentials {
+    private final Long driverId;
+    private final String passwordHash;
+
+    public Credentials(Long driverId, String passwordHash) {
+        this.driverId = driverId;
+        this.passwordHash = passwordHash;
+    }
+
+    public Long getDriverId() {
+        return driverId;
+    }
+
+    public String getPasswordHash() {
+        return passwordHash;
+    }
+
+    @Override
+    public String toString() {
+        return "Credentials{driverId=" + driverId + '}';
+    }
+}
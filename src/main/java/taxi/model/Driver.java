@@ -3,7 +3,8 @@ package taxi.model;
 import java.util.Objects;
 
 public class Driver {
-    private Long id;
+    private static final long NO_ID = 0;
+    private long id;
     private String name;
     private String licenseNumber;
     private String login;
@@ -12,12 +13,19 @@ public class Driver {
     public Driver() {
     }
 
-    public Long getId() {
+    /**
+     * Returns the id without boxing it, 0 while the driver isn't saved.
+     */
+    public long id() {
         return id;
     }
 
+    public Long getId() {
+        return id == NO_ID ? null : id;
+    }
+
     public void setId(Long id) {
-        this.id = id;
+        this.id = id == null ? NO_ID : id;
     }
 
     public String getName() {
@@ -61,7 +69,10 @@ public class Driver {
             return false;
         }
         Driver driver = (Driver) o;
-        return Objects.equals(id, driver.id)
+        if (EntityEquality.byId(id)) {
+            return id == driver.id;
+        }
+        return id == driver.id
                 && Objects.equals(name, driver.name)
                 && Objects.equals(licenseNumber, driver.licenseNumber)
                 && Objects.equals(login, driver.login)
@@ -70,13 +81,16 @@ public class Driver {
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, name, licenseNumber, login, password);
+        if (EntityEquality.byId(id)) {
+            return Long.hashCode(id);
+        }
+        return 31 * Long.hashCode(id) + Objects.hash(name, licenseNumber, login, password);
     }
 
     @Override
     public String toString() {
         return "Driver{"
-                + "id=" + id
+                + "id=" + getId()
                 + ", name='" + name + '\''
                 + ", licenseNumber='" + licenseNumber + '\''
                 + ", login='" + login + '\''
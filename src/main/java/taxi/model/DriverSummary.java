@@ -0,0 +1,49 @@
+package taxi.model;
+
+/**
+ * Read-only view of a driver for list pages, without the password.
+ */
+public class DriverSummary {
+    private final Long id;
+    private final String name;
+    private final String licenseNumber;
+    private final String login;
+
+    public DriverSummary(Long id, String name, String licenseNumber, String login) {
+        this.id = id;
+        this.name = name;
+        this.licenseNumber = licenseNumber;
+        this.login = login;
+    }
+
+    public static DriverSummary of(Driver driver) {
+        return new DriverSummary(driver.getId(), driver.getName(), driver.getLicenseNumber(),
+                driver.getLogin());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getLicenseNumber() {
+        return licenseNumber;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    @Override
+    public String toString() {
+        return "DriverSummary{"
+                + "id=" + id
+                + ", name='" + name + '\''
+                + ", licenseNumber='" + licenseNumber + '\''
+                + ", login='" + login + '\''
+                + '}';
+    }
+}
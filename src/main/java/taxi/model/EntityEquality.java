@@ -0,0 +1,22 @@
+package taxi.model;
+
+import taxi.util.AppConfig;
+
+/**
+ * Equality mode of cars, drivers and manufacturers. By default they are values, equal
+ * when all their fields are. With {@code taxi.model.idEquality} set, saved entities are
+ * equal when their ids are and hash by id alone, so hashed collections of cached cars
+ * don't walk every driver; unsaved entities still compare by value. In both modes the
+ * id takes part in the hash code, so take an entity out of hashed collections before
+ * saving or changing it.
+ */
+final class EntityEquality {
+    static final boolean BY_ID = AppConfig.getBoolean("taxi.model.idEquality", false);
+
+    private EntityEquality() {
+    }
+
+    static boolean byId(long id) {
+        return BY_ID && id != 0;
+    }
+}
@@ -3,7 +3,8 @@ package taxi.model;
 import java.util.Objects;
 
 public class Manufacturer {
-    private Long id;
+    private static final long NO_ID = 0;
+    private long id;
     private String name;
     private String country;
 
@@ -15,12 +16,19 @@ public class Manufacturer {
         this.country = country;
     }
 
-    public Long getId() {
+    /**
+     * Returns the id without boxing it, 0 while the manufacturer isn't saved.
+     */
+    public long id() {
         return id;
     }
 
+    public Long getId() {
+        return id == NO_ID ? null : id;
+    }
+
     public void setId(Long id) {
-        this.id = id;
+        this.id = id == null ? NO_ID : id;
     }
 
     public String getName() {
@@ -48,13 +56,19 @@ public class Manufacturer {
             return false;
         }
         Manufacturer that = (Manufacturer) o;
-        return Objects.equals(id, that.id)
+        if (EntityEquality.byId(id)) {
+            return id == that.id;
+        }
+        return id == that.id
                 && Objects.equals(name, that.name)
                 && Objects.equals(country, that.country);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, name, country);
+        if (EntityEquality.byId(id)) {
+            return Long.hashCode(id);
+        }
+        return 31 * Long.hashCode(id) + Objects.hash(name, country);
     }
 }
@@ -0,0 +1,44 @@
+package taxi.model;
+
+import java.util.List;
+
+public class Page<T> {
+    private final List<T> items;
+    private final Long previousCursor;
+    private final Long nextCursor;
+
+    public Page(List<T> items, Long previousCursor, Long nextCursor) {
+        this.items = items;
+        this.previousCursor = previousCursor;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Returns the id to pass as {@code beforeId} for the previous page,
+     * or null on the first page.
+     */
+    public Long getPreviousCursor() {
+        return previousCursor;
+    }
+
+    /**
+     * Returns the id to pass as {@code afterId} for the next page,
+     * or null on the last page.
+     */
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    @Override
+    public String toString() {
+        return "Page{"
+                + "size=" + items.size()
+                + ", previousCursor=" + previousCursor
+                + ", nextCursor=" + nextCursor
+                + '}';
+    }
+}
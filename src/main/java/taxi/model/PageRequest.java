@@ -0,0 +1,73 @@
+package taxi.model;
+
+/**
+ * Keyset page request. At most one of {@code afterId} and {@code beforeId} is set:
+ * {@code afterId} asks for the page following the given id, {@code beforeId} for the
+ * page preceding it, neither for the first page. {@code prefix} filters cars by model
+ * and drivers and manufacturers by name.
+ */
+public class PageRequest {
+    private Long afterId;
+    private Long beforeId;
+    private int size;
+    private Long manufacturerId;
+    private String prefix;
+
+    public PageRequest() {
+    }
+
+    public PageRequest(int size) {
+        this.size = size;
+    }
+
+    public Long getAfterId() {
+        return afterId;
+    }
+
+    public void setAfterId(Long afterId) {
+        this.afterId = afterId;
+    }
+
+    public Long getBeforeId() {
+        return beforeId;
+    }
+
+    public void setBeforeId(Long beforeId) {
+        this.beforeId = beforeId;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public Long getManufacturerId() {
+        return manufacturerId;
+    }
+
+    public void setManufacturerId(Long manufacturerId) {
+        this.manufacturerId = manufacturerId;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    @Override
+    public String toString() {
+        return "PageRequest{"
+                + "afterId=" + afterId
+                + ", beforeId=" + beforeId
+                + ", size=" + size
+                + ", manufacturerId=" + manufacturerId
+                + ", prefix='" + prefix + '\''
+                + '}';
+    }
+}
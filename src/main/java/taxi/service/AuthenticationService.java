@@ -4,5 +4,6 @@ import taxi.exception.AuthenticationException;
 import taxi.model.Driver;
 
 public interface AuthenticationService {
-    Driver login(String login, String password) throws AuthenticationException;
+    Driver login(String login, String password, String clientAddress)
+            throws AuthenticationException;
 }
@@ -1,6 +1,5 @@
 package taxi.service;
 
-import java.util.Optional;
 import taxi.exception.AuthenticationException;
 import taxi.lib.Inject;
 import taxi.lib.Service;
@@ -8,15 +7,14 @@ import taxi.model.Driver;
 
 @Service
 public class AuthenticationServiceImpl implements AuthenticationService {
+    @Inject
+    private CredentialStore credentialStore;
     @Inject
     private DriverService driverService;
 
     @Override
-    public Driver login(String login, String password) throws AuthenticationException {
-        Optional<Driver> driver = driverService.findByLogin(login);
-        if (driver.isPresent() && driver.get().getPassword().equals(password)) {
-            return driver.get();
-        }
-        throw new AuthenticationException("Login or password failed!");
+    public Driver login(String login, String password, String clientAddress)
+            throws AuthenticationException {
+        return driverService.get(credentialStore.authenticate(login, password, clientAddress));
     }
 }
@@ -1,8 +1,12 @@
 package taxi.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 import taxi.model.Car;
+import taxi.model.CarListRow;
 import taxi.model.Driver;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 
 public interface CarService extends GenericService<Car> {
     void addDriverToCar(Driver driver, Car car);
@@ -10,4 +14,8 @@ public interface CarService extends GenericService<Car> {
     void removeDriverFromCar(Driver driver, Car car);
 
     List<Car> getAllByDriver(Long driverId);
+
+    Page<CarListRow> getListPage(PageRequest request);
+
+    void exportAll(Consumer<Car> action);
 }
@@ -1,37 +1,92 @@
 package taxi.service;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import taxi.dao.CarDao;
+import taxi.lib.EntityChangeEvent;
+import taxi.lib.EntityChangeListener;
 import taxi.lib.Inject;
 import taxi.lib.Service;
 import taxi.model.Car;
+import taxi.model.CarListRow;
 import taxi.model.Driver;
+import taxi.model.Page;
+import taxi.model.PageRequest;
+import taxi.util.AppConfig;
+import taxi.util.EntityCache;
+import taxi.util.TableVersions;
+import taxi.util.TransactionManager;
 
 @Service
-public class CarServiceImpl implements CarService {
+public class CarServiceImpl implements CarService, EntityChangeListener {
+    private static final String CACHE_PROPERTY_PREFIX = "taxi.cache.cars.";
+    private final EntityCache<Long, Car> cache = new EntityCache<>("cars",
+            AppConfig.getInt(CACHE_PROPERTY_PREFIX + "maxSize", 10_000),
+            AppConfig.getLong(CACHE_PROPERTY_PREFIX + "ttlMillis", 30_000));
     @Inject
     private CarDao carDao;
+    @Inject
+    private DriverCarIndex driverCarIndex;
 
     @Override
     public void addDriverToCar(Driver driver, Car car) {
-        car.getDrivers().add(driver);
-        carDao.update(car);
+        TransactionManager.inTransaction(() -> carDao.assignDriver(car.getId(), driver.getId()));
+        driverCarIndex.add(driver.id(), car.id());
+        cache.invalidate(car.getId());
+        if (car.getDrivers().stream().noneMatch(assigned -> assigned.id() == driver.id())) {
+            car.getDrivers().add(driver);
+        }
     }
 
     @Override
     public void removeDriverFromCar(Driver driver, Car car) {
-        car.getDrivers().remove(driver);
-        carDao.update(car);
+        TransactionManager.inTransaction(
+                () -> carDao.unassignDriver(car.getId(), driver.getId()));
+        driverCarIndex.remove(driver.id(), car.id());
+        cache.invalidate(car.getId());
+        car.getDrivers().removeIf(assigned -> assigned.id() == driver.id());
     }
 
+    /**
+     * Looks the car ids up in the {@link DriverCarIndex} and fetches the cars that
+     * aren't cached with one query. Cached cars are dropped when a change to them, their
+     * drivers or their manufacturer arrives through {@link #onChanges}; writes made by
+     * other nodes show up after {@code taxi.cache.cars.ttlMillis}.
+     */
     @Override
     public List<Car> getAllByDriver(Long driverId) {
-        return carDao.getAllByDriver(driverId);
+        long[] carIds = driverCarIndex.getCarIds(driverId);
+        Map<Long, Car> cars = cache.getAll(Arrays.stream(carIds).boxed()
+                .collect(Collectors.toList()), this::loadCars);
+        return Arrays.stream(carIds)
+                .mapToObj(cars::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void exportAll(Consumer<Car> action) {
+        carDao.exportAll(action);
     }
 
     @Override
     public Car create(Car car) {
-        return carDao.create(car);
+        Car created = TransactionManager.inTransaction(() -> carDao.create(car));
+        indexDrivers(created);
+        return created;
+    }
+
+    @Override
+    public List<Car> createAll(List<Car> cars) {
+        List<Car> created = TransactionManager.inTransaction(() -> carDao.createAll(cars));
+        created.forEach(this::indexDrivers);
+        return created;
     }
 
     @Override
@@ -44,13 +99,73 @@ public class CarServiceImpl implements CarService {
         return carDao.getAll();
     }
 
+    @Override
+    public Page<Car> getPage(PageRequest request) {
+        return carDao.getPage(request);
+    }
+
+    @Override
+    public Page<CarListRow> getListPage(PageRequest request) {
+        return carDao.getListPage(request);
+    }
+
     @Override
     public Car update(Car car) {
-        return carDao.update(car);
+        Car updated = TransactionManager.inTransaction(() -> carDao.update(car));
+        driverCarIndex.replaceCar(updated.id(), updated.getDriverIds());
+        cache.invalidate(updated.getId());
+        return updated;
     }
 
     @Override
     public boolean delete(Long id) {
-        return carDao.delete(id);
+        boolean deleted = TransactionManager.inTransaction(() -> carDao.delete(id));
+        if (deleted) {
+            driverCarIndex.removeCar(id);
+        }
+        cache.invalidate(id);
+        return deleted;
+    }
+
+    /**
+     * Drops the cached cars a committed write may have changed, including driver and
+     * manufacturer edits that never go through this service.
+     */
+    @Override
+    public void onChanges(List<EntityChangeEvent> events) {
+        for (EntityChangeEvent event : events) {
+            switch (event.getEntity()) {
+                case TableVersions.CARS:
+                    cache.invalidate(event.getId());
+                    break;
+                case TableVersions.DRIVERS:
+                    if (event.getOperation() == EntityChangeEvent.Operation.UPDATE) {
+                        for (long carId : driverCarIndex.getCarIds(event.getId())) {
+                            cache.invalidate(carId);
+                        }
+                    } else if (event.getOperation() == EntityChangeEvent.Operation.DELETE) {
+                        cache.invalidateAll();
+                    }
+                    break;
+                case TableVersions.MANUFACTURERS:
+                    if (event.getOperation() != EntityChangeEvent.Operation.CREATE) {
+                        cache.invalidateAll();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void indexDrivers(Car car) {
+        for (long driverId : car.getDriverIds()) {
+            driverCarIndex.add(driverId, car.id());
+        }
+    }
+
+    private Map<Long, Car> loadCars(Collection<Long> ids) {
+        return carDao.getAllByIds(ids).stream()
+                .collect(Collectors.toMap(Car::getId, Function.identity()));
     }
 }
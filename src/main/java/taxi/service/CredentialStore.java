@@ -0,0 +1,28 @@
+package taxi.service;
+
+import java.util.List;
+import taxi.exception.AuthenticationException;
+
+public interface CredentialStore {
+    /**
+     * Returns the id of the driver with the given login and password. Failed attempts
+     * are counted per client address and login.
+     */
+    Long authenticate(String login, String password, String clientAddress)
+            throws AuthenticationException;
+
+    /**
+     * Hashes a password as entered by a user; the input is never taken for a hash.
+     */
+    String hash(String password);
+
+    /**
+     * Hashes the passwords on the hashing threads and returns the hashes in the same
+     * order.
+     */
+    List<String> hashAll(List<String> passwords);
+
+    void invalidate(String login);
+
+    void invalidateAll();
+}
@@ -0,0 +1,218 @@
+package taxi.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.dao.DriverDao;
+import taxi.exception.AuthenticationException;
+import taxi.lib.Inject;
+import taxi.lib.Service;
+import taxi.model.Credentials;
+import taxi.util.AppConfig;
+import taxi.util.EntityCache;
+import taxi.util.PasswordHasher;
+import taxi.util.TransactionManager;
+
+/**
+ * Verifies passwords against a short-lived cache of login to hash lookups. Unknown
+ * logins are cached as well, so repeated guesses don't reach the database, and are
+ * checked against a dummy hash so they take as long as known ones. A client address
+ * that fails {@code taxi.auth.maxFailures} times for a login is refused without
+ * hashing until {@code taxi.auth.lockoutMillis} have passed since its first failure;
+ * the same login from other addresses is unaffected, so nobody can lock a driver out.
+ * Failures are keyed on the forwarded client address that
+ * {@link taxi.util.ClientAddress} takes from trusted proxies, not on the balancer's, so
+ * a deployment behind a load balancer must list it in {@code taxi.http.trustedProxies}.
+ * Legacy plain text passwords and hashes of another cost are rehashed on the next
+ * sign-in.
+ *
+ * <p>At most {@code taxi.auth.hashThreads} PBKDF2 computations run at a time, so sign-ins
+ * and imports can't take every core from the rest of the application. Sign-ins wait for
+ * a turn in arrival order for up to {@code taxi.auth.hashWaitMillis} and are refused as
+ * busy after that. Bulk hashing runs on as many dedicated threads and takes its turns
+ * one hash at a time, so a large import slows sign-ins down by at most one hash each.
+ */
+@Service
+public class CredentialStoreImpl implements CredentialStore {
+    private static final String CACHE_PROPERTY_PREFIX = "taxi.cache.credentials.";
+    private static final int MAX_FAILURES = AppConfig.getInt("taxi.auth.maxFailures", 5);
+    private static final long LOCKOUT_MILLIS = AppConfig.getLong("taxi.auth.lockoutMillis", 60_000);
+    private static final int HASH_THREADS = AppConfig.getInt("taxi.auth.hashThreads",
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    private static final long HASH_WAIT_MILLIS =
+            AppConfig.getLong("taxi.auth.hashWaitMillis", 2_000);
+    private static final int MAX_TRACKED_LOGINS = 100_000;
+    private static final String FAILED_MESSAGE = "Login or password failed!";
+    private static final String BUSY_MESSAGE = "Sign-in is busy, try again later";
+    private static final Logger logger = LogManager.getLogger(CredentialStoreImpl.class);
+    private final EntityCache<String, Optional<Credentials>> cache = new EntityCache<>(
+            "credentials", AppConfig.getInt(CACHE_PROPERTY_PREFIX + "maxSize", 10_000),
+            AppConfig.getLong(CACHE_PROPERTY_PREFIX + "ttlMillis", 30_000));
+    private final Map<String, Failures> failures = new ConcurrentHashMap<>();
+    private final Semaphore hashPermits = new Semaphore(HASH_THREADS, true);
+    private final ThreadPoolExecutor hashExecutor;
+    private final String dummyHash = PasswordHasher.hash("dummy");
+    @Inject
+    private DriverDao driverDao;
+
+    public CredentialStoreImpl() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "taxi-hashing-"
+                    + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        hashExecutor = new ThreadPoolExecutor(HASH_THREADS, HASH_THREADS, 60,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+        hashExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public Long authenticate(String login, String password, String clientAddress)
+            throws AuthenticationException {
+        if (login == null || password == null) {
+            throw new AuthenticationException(FAILED_MESSAGE);
+        }
+        long now = System.currentTimeMillis();
+        String failureKey = clientAddress + '/' + login;
+        Failures clientFailures = failures.get(failureKey);
+        if (clientFailures != null && clientFailures.isLocked(now)) {
+            throw new AuthenticationException("Too many failed attempts, try again later");
+        }
+        Optional<Credentials> credentials = cache.get(login, driverDao::findCredentialsByLogin);
+        String stored = credentials.map(Credentials::getPasswordHash).orElse(dummyHash);
+        if (!verify(password, stored) || credentials.isEmpty()) {
+            recordFailure(failureKey, now);
+            throw new AuthenticationException(FAILED_MESSAGE);
+        }
+        failures.remove(failureKey);
+        Long driverId = credentials.get().getDriverId();
+        if (PasswordHasher.needsRehash(stored)) {
+            logger.info("Rehashing password of driver with id: {}", driverId);
+            String rehashed = withHashPermit(() -> PasswordHasher.hash(password));
+            TransactionManager.inTransaction(() -> driverDao.updatePassword(driverId, rehashed));
+            cache.invalidate(login);
+        }
+        return driverId;
+    }
+
+    @Override
+    public String hash(String password) {
+        return withHashPermit(() -> PasswordHasher.hash(password));
+    }
+
+    @Override
+    public List<String> hashAll(List<String> passwords) {
+        String[] hashes = new String[passwords.size()];
+        AtomicInteger next = new AtomicInteger();
+        Runnable worker = () -> {
+            for (int i = next.getAndIncrement(); i < hashes.length;
+                    i = next.getAndIncrement()) {
+                String password = passwords.get(i);
+                hashes[i] = withHashPermit(() -> PasswordHasher.hash(password));
+            }
+        };
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(HASH_THREADS, hashes.length); i++) {
+            workers.add(hashExecutor.submit(worker));
+        }
+        try {
+            for (Future<?> future : workers) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Can't hash passwords", e.getCause());
+        }
+        return Arrays.asList(hashes);
+    }
+
+    @Override
+    public void invalidate(String login) {
+        cache.invalidate(login);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private boolean verify(String password, String stored) throws AuthenticationException {
+        try {
+            if (!hashPermits.tryAcquire(HASH_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                throw new AuthenticationException(BUSY_MESSAGE);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AuthenticationException(BUSY_MESSAGE);
+        }
+        try {
+            return PasswordHasher.matches(password, stored);
+        } finally {
+            hashPermits.release();
+        }
+    }
+
+    private String withHashPermit(Supplier<String> hashing) {
+        hashPermits.acquireUninterruptibly();
+        try {
+            return hashing.get();
+        } finally {
+            hashPermits.release();
+        }
+    }
+
+    private void recordFailure(String failureKey, long now) {
+        if (failures.size() >= MAX_TRACKED_LOGINS) {
+            failures.values().removeIf(clientFailures -> clientFailures.isExpired(now));
+        }
+        failures.compute(failureKey, (key, clientFailures) ->
+                clientFailures == null || clientFailures.isExpired(now)
+                        ? new Failures(now)
+                        : clientFailures.increment());
+    }
+
+    private static class Failures {
+        private final long firstFailureAt;
+        private final int count;
+
+        private Failures(long firstFailureAt) {
+            this(firstFailureAt, 1);
+        }
+
+        private Failures(long firstFailureAt, int count) {
+            this.firstFailureAt = firstFailureAt;
+            this.count = count;
+        }
+
+        private Failures increment() {
+            return new Failures(firstFailureAt, count + 1);
+        }
+
+        private boolean isExpired(long now) {
+            return now - firstFailureAt >= LOCKOUT_MILLIS;
+        }
+
+        private boolean isLocked(long now) {
+            return count >= MAX_FAILURES && !isExpired(now);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package taxi.service;
+
+/**
+ * In-memory copy of the active rows of cars_drivers in both directions. Writers
+ * update it after their change is committed. Ids are returned sorted.
+ */
+public interface DriverCarIndex {
+    long[] getCarIds(long driverId);
+
+    long[] getDriverIds(long carId);
+
+    /**
+     * Returns the drivers that share at least one car with the given driver.
+     */
+    long[] getCoDriverIds(long driverId);
+
+    void add(long driverId, long carId);
+
+    void remove(long driverId, long carId);
+
+    void removeCar(long carId);
+
+    /**
+     * Sets the drivers of a car in one step, so readers see either the old drivers or
+     * the new ones.
+     */
+    void replaceCar(long carId, long[] driverIds);
+
+    void removeDriver(long driverId);
+
+    void reload();
+}
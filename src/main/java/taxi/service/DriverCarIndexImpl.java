@@ -0,0 +1,181 @@
+package taxi.service;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.dao.CarDao;
+import taxi.lib.Inject;
+import taxi.lib.Service;
+import taxi.util.LongHashSet;
+import taxi.util.LongSetMultimap;
+
+/**
+ * Both directions are kept in primitive open-addressing multimaps, so an
+ * assignment costs two table slots instead of map nodes and boxed Longs. Reads
+ * share a read lock; writes and reloads are serialized, so an update that waits
+ * for a running reload is applied on top of the reloaded state. A reload streams
+ * cars_drivers into new maps while readers keep using the old ones. The index is
+ * loaded on first use if {@link #reload()} wasn't called at startup.
+ */
+@Service
+public class DriverCarIndexImpl implements DriverCarIndex {
+    private static final Logger logger = LogManager.getLogger(DriverCarIndexImpl.class);
+    private static final long[] NONE = new long[0];
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile LongSetMultimap carsByDriver = new LongSetMultimap();
+    private volatile LongSetMultimap driversByCar = new LongSetMultimap();
+    private volatile boolean loaded;
+    @Inject
+    private CarDao carDao;
+
+    @Override
+    public long[] getCarIds(long driverId) {
+        ensureLoaded();
+        return read(carsByDriver, driverId);
+    }
+
+    @Override
+    public long[] getDriverIds(long carId) {
+        ensureLoaded();
+        return read(driversByCar, carId);
+    }
+
+    @Override
+    public long[] getCoDriverIds(long driverId) {
+        ensureLoaded();
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            LongHashSet carIds = carsByDriver.get(driverId);
+            if (carIds == null) {
+                return NONE;
+            }
+            LongHashSet coDriverIds = new LongHashSet(carIds.size() * 2);
+            carIds.forEach(carId -> driversByCar.get(carId).forEach(coDriverIds::add));
+            coDriverIds.remove(driverId);
+            return coDriverIds.toArray();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public synchronized void add(long driverId, long carId) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            carsByDriver.put(driverId, carId);
+            driversByCar.put(carId, driverId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public synchronized void remove(long driverId, long carId) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            carsByDriver.remove(driverId, carId);
+            driversByCar.remove(carId, driverId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public synchronized void removeCar(long carId) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            LongHashSet driverIds = driversByCar.removeAll(carId);
+            if (driverIds != null) {
+                driverIds.forEach(driverId -> carsByDriver.remove(driverId, carId));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public synchronized void replaceCar(long carId, long[] driverIds) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            LongHashSet oldDriverIds = driversByCar.removeAll(carId);
+            if (oldDriverIds != null) {
+                oldDriverIds.forEach(driverId -> carsByDriver.remove(driverId, carId));
+            }
+            for (long driverId : driverIds) {
+                carsByDriver.put(driverId, carId);
+                driversByCar.put(carId, driverId);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public synchronized void removeDriver(long driverId) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            LongHashSet carIds = carsByDriver.removeAll(driverId);
+            if (carIds != null) {
+                carIds.forEach(carId -> driversByCar.remove(carId, driverId));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public synchronized void reload() {
+        LongSetMultimap newCarsByDriver = new LongSetMultimap();
+        LongSetMultimap newDriversByCar = new LongSetMultimap();
+        long start = System.nanoTime();
+        carDao.forEachAssignment((carId, driverId) -> {
+            newCarsByDriver.put(driverId, carId);
+            newDriversByCar.put(carId, driverId);
+        });
+        install(newCarsByDriver, newDriversByCar);
+        logger.info("Loaded cars of {} drivers and drivers of {} cars in {} ms",
+                newCarsByDriver.size(), newDriversByCar.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void install(LongSetMultimap newCarsByDriver, LongSetMultimap newDriversByCar) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            carsByDriver = newCarsByDriver;
+            driversByCar = newDriversByCar;
+        } finally {
+            writeLock.unlock();
+        }
+        loaded = true;
+    }
+
+    private long[] read(LongSetMultimap index, long key) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            LongHashSet values = index.get(key);
+            return values == null ? NONE : values.toArray();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+}
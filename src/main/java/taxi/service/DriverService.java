@@ -1,8 +1,27 @@
 package taxi.service;
 
+import java.util.List;
 import java.util.Optional;
 import taxi.model.Driver;
+import taxi.model.DriverSummary;
+import taxi.model.Page;
+import taxi.model.PageRequest;
 
 public interface DriverService extends GenericService<Driver> {
     Optional<Driver> findByLogin(String login);
+
+    /**
+     * Stores drivers whose passwords are already PBKDF2 hashes, as exported by another
+     * installation, without hashing them again.
+     */
+    List<Driver> createAllHashed(List<Driver> drivers);
+
+    Page<DriverSummary> getSummaryPage(PageRequest request);
+
+    /**
+     * Hashes the plain text password and stores it for the driver. {@link #update(Object)}
+     * does the same when the driver carries a plain text password and keeps the stored
+     * hash otherwise, so a driver that was read and written back can still sign in.
+     */
+    boolean changePassword(Long id, String password);
 }
@@ -2,24 +2,64 @@ package taxi.service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import taxi.dao.DriverDao;
 import taxi.lib.Inject;
 import taxi.lib.Service;
 import taxi.model.Driver;
+import taxi.model.DriverSummary;
+import taxi.model.Page;
+import taxi.model.PageRequest;
+import taxi.util.AppConfig;
+import taxi.util.EntityCache;
+import taxi.util.PasswordHasher;
+import taxi.util.TransactionManager;
 
 @Service
 public class DriverServiceImpl implements DriverService {
+    private static final String CACHE_PROPERTY_PREFIX = "taxi.cache.drivers.";
+    private final EntityCache<Long, Optional<Driver>> cache = new EntityCache<>("drivers",
+            AppConfig.getInt(CACHE_PROPERTY_PREFIX + "maxSize", 10_000),
+            AppConfig.getLong(CACHE_PROPERTY_PREFIX + "ttlMillis", 60_000));
     @Inject
     private DriverDao driverDao;
+    @Inject
+    private DriverCarIndex driverCarIndex;
+    @Inject
+    private CredentialStore credentialStore;
 
     @Override
     public Driver create(Driver driver) {
-        return driverDao.create(driver);
+        driver.setPassword(credentialStore.hash(driver.getPassword()));
+        Driver created = TransactionManager.inTransaction(() -> driverDao.create(driver));
+        cache.invalidate(created.getId());
+        credentialStore.invalidate(created.getLogin());
+        return created;
+    }
+
+    @Override
+    public List<Driver> createAll(List<Driver> drivers) {
+        List<String> hashes = credentialStore.hashAll(drivers.stream()
+                .map(Driver::getPassword)
+                .collect(Collectors.toList()));
+        for (int i = 0; i < drivers.size(); i++) {
+            drivers.get(i).setPassword(hashes.get(i));
+        }
+        return createAllHashed(drivers);
+    }
+
+    @Override
+    public List<Driver> createAllHashed(List<Driver> drivers) {
+        List<Driver> created = TransactionManager.inTransaction(
+                () -> driverDao.createAll(drivers));
+        cache.invalidateAll();
+        credentialStore.invalidateAll();
+        return created;
     }
 
     @Override
     public Driver get(Long id) {
-        return driverDao.get(id).get();
+        return cache.get(id, driverDao::get).get();
     }
 
     @Override
@@ -27,14 +67,53 @@ public class DriverServiceImpl implements DriverService {
         return driverDao.getAll();
     }
 
+    @Override
+    public Page<Driver> getPage(PageRequest request) {
+        return driverDao.getPage(request);
+    }
+
+    @Override
+    public Page<DriverSummary> getSummaryPage(PageRequest request) {
+        return driverDao.getSummaryPage(request);
+    }
+
     @Override
     public Driver update(Driver driver) {
-        return driverDao.update(driver);
+        String password = driver.getPassword();
+        String hash = password == null || PasswordHasher.isHash(password)
+                ? null : credentialStore.hash(password);
+        Driver updated = TransactionManager.inTransaction(() -> {
+            Driver result = driverDao.update(driver);
+            if (hash != null) {
+                driverDao.updatePassword(result.getId(), hash);
+                result.setPassword(hash);
+            }
+            return result;
+        });
+        cache.invalidate(updated.getId());
+        credentialStore.invalidateAll();
+        return updated;
+    }
+
+    @Override
+    public boolean changePassword(Long id, String password) {
+        String hash = credentialStore.hash(password);
+        boolean changed = TransactionManager.inTransaction(
+                () -> driverDao.updatePassword(id, hash));
+        cache.invalidate(id);
+        credentialStore.invalidateAll();
+        return changed;
     }
 
     @Override
     public boolean delete(Long id) {
-        return driverDao.delete(id);
+        boolean deleted = TransactionManager.inTransaction(() -> driverDao.delete(id));
+        if (deleted) {
+            driverCarIndex.removeDriver(id);
+        }
+        cache.invalidate(id);
+        credentialStore.invalidateAll();
+        return deleted;
     }
 
     @Override
@@ -1,24 +1,46 @@
 package taxi.service;
 
 import java.util.List;
+import java.util.Optional;
 import taxi.dao.ManufacturerDao;
 import taxi.lib.Inject;
 import taxi.lib.Service;
 import taxi.model.Manufacturer;
+import taxi.model.Page;
+import taxi.model.PageRequest;
+import taxi.util.AppConfig;
+import taxi.util.EntityCache;
+import taxi.util.TransactionManager;
 
 @Service
 public class ManufacturerServiceImpl implements ManufacturerService {
+    private static final String CACHE_PROPERTY_PREFIX = "taxi.cache.manufacturers.";
+    private final EntityCache<Long, Optional<Manufacturer>> cache = new EntityCache<>(
+            "manufacturers",
+            AppConfig.getInt(CACHE_PROPERTY_PREFIX + "maxSize", 1_000),
+            AppConfig.getLong(CACHE_PROPERTY_PREFIX + "ttlMillis", 600_000));
     @Inject
     private ManufacturerDao manufacturerDao;
 
     @Override
     public Manufacturer create(Manufacturer manufacturer) {
-        return manufacturerDao.create(manufacturer);
+        Manufacturer created = TransactionManager.inTransaction(
+                () -> manufacturerDao.create(manufacturer));
+        cache.invalidate(created.getId());
+        return created;
+    }
+
+    @Override
+    public List<Manufacturer> createAll(List<Manufacturer> manufacturers) {
+        List<Manufacturer> created = TransactionManager.inTransaction(
+                () -> manufacturerDao.createAll(manufacturers));
+        cache.invalidateAll();
+        return created;
     }
 
     @Override
     public Manufacturer get(Long id) {
-        return manufacturerDao.get(id).get();
+        return cache.get(id, manufacturerDao::get).get();
     }
 
     @Override
@@ -26,13 +48,23 @@ public class ManufacturerServiceImpl implements ManufacturerService {
         return manufacturerDao.getAll();
     }
 
+    @Override
+    public Page<Manufacturer> getPage(PageRequest request) {
+        return manufacturerDao.getPage(request);
+    }
+
     @Override
     public Manufacturer update(Manufacturer manufacturer) {
-        return manufacturerDao.update(manufacturer);
+        Manufacturer updated = TransactionManager.inTransaction(
+                () -> manufacturerDao.update(manufacturer));
+        cache.invalidate(updated.getId());
+        return updated;
     }
 
     @Override
     public boolean delete(Long id) {
-        return manufacturerDao.delete(id);
+        boolean deleted = TransactionManager.inTransaction(() -> manufacturerDao.delete(id));
+        cache.invalidate(id);
+        return deleted;
     }
 }
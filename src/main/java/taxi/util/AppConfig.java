@@ -0,0 +1,68 @@
+package taxi.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Application settings. A setting such as {@code taxi.db.url} is looked up as a JVM
+ * system property, then as the environment variable {@code TAXI_DB_URL}, then in an
+ * optional {@value #FILE} on the class path, and falls back to the given default.
+ */
+public final class AppConfig {
+    public static final String FILE = "taxi.properties";
+    private static final Properties fileProperties = load();
+
+    private AppConfig() {
+    }
+
+    public static String get(String name, String defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null) {
+            value = System.getenv(toEnvironmentName(name));
+        }
+        if (value == null) {
+            value = fileProperties.getProperty(name);
+        }
+        return value == null ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String name, int defaultValue) {
+        String value = get(name, null);
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Setting " + name + " is not a number: " + value, e);
+        }
+    }
+
+    public static long getLong(String name, long defaultValue) {
+        String value = get(name, null);
+        try {
+            return value == null ? defaultValue : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Setting " + name + " is not a number: " + value, e);
+        }
+    }
+
+    public static boolean getBoolean(String name, boolean defaultValue) {
+        String value = get(name, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    static String toEnvironmentName(String name) {
+        return name.replace('.', '_').toUpperCase();
+    }
+
+    private static Properties load() {
+        Properties properties = new Properties();
+        try (InputStream in = AppConfig.class.getClassLoader().getResourceAsStream(FILE)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't read " + FILE, e);
+        }
+        return properties;
+    }
+}
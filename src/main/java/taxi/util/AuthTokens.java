@@ -0,0 +1,105 @@
+package taxi.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Signed sign-in tokens for {@code taxi.auth.mode=token}. A token is
+ * {@code <driver id>.<expiry in epoch seconds>.<signature>}, where the signature is
+ * the base64url HMAC-SHA256 of the first two parts under {@code taxi.auth.secret}
+ * (base64). Verifying one needs neither a session nor the database, so every node
+ * sharing the secret accepts the tokens of the others.
+ */
+public final class AuthTokens {
+    public static final String COOKIE_NAME = "taxi_auth";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int GENERATED_SECRET_BYTES = 32;
+    private static final Logger logger = LogManager.getLogger(AuthTokens.class);
+    private static final boolean ENABLED =
+            "token".equalsIgnoreCase(AppConfig.get("taxi.auth.mode", "session"));
+    private static final long TTL_SECONDS = AppConfig.getLong("taxi.auth.tokenTtlSeconds", 28_800);
+    private static final SecretKeySpec KEY = new SecretKeySpec(readSecret(), ALGORITHM);
+    private static final ThreadLocal<Mac> MAC = ThreadLocal.withInitial(AuthTokens::newMac);
+
+    private AuthTokens() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static int getTtlSeconds() {
+        return (int) TTL_SECONDS;
+    }
+
+    public static String issue(Long driverId) {
+        String payload = driverId + "." + (System.currentTimeMillis() / 1000 + TTL_SECONDS);
+        return payload + "." + sign(payload);
+    }
+
+    /**
+     * Returns the driver id of a well-formed, correctly signed and unexpired token,
+     * otherwise null.
+     */
+    public static Long verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        int signatureStart = token.lastIndexOf('.');
+        int expiryStart = token.lastIndexOf('.', signatureStart - 1);
+        if (expiryStart <= 0) {
+            return null;
+        }
+        String payload = token.substring(0, signatureStart);
+        byte[] expected = sign(payload).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = token.substring(signatureStart + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return null;
+        }
+        try {
+            long expiry = Long.parseLong(token.substring(expiryStart + 1, signatureStart));
+            if (expiry < System.currentTimeMillis() / 1000) {
+                return null;
+            }
+            return Long.valueOf(token.substring(0, expiryStart));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String sign(String payload) {
+        byte[] signature = MAC.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+
+    private static Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(KEY);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Can't initialize " + ALGORITHM, e);
+        }
+    }
+
+    private static byte[] readSecret() {
+        String secret = AppConfig.get("taxi.auth.secret", null);
+        if (secret != null) {
+            return Base64.getDecoder().decode(secret);
+        }
+        if (ENABLED) {
+            logger.warn("taxi.auth.secret is not set, signing tokens with a random key. "
+                    + "Tokens won't survive a restart or be accepted by other nodes");
+        }
+        byte[] generated = new byte[GENERATED_SECRET_BYTES];
+        new SecureRandom().nextBytes(generated);
+        return generated;
+    }
+}
@@ -0,0 +1,207 @@
+package taxi.util;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Bounded executor for one class of endpoints. {@link #dispatch} frees the container
+ * thread with {@code startAsync}, runs the blocking work on the bulkhead's threads and
+ * forwards to the view when it finishes, so a slow database fills this bulkhead's
+ * queue instead of the container's thread pool. A full queue answers 503 right away
+ * and a request still unfinished after the timeout answers 503 as well. Whichever of the
+ * worker, the timeout and a container error comes first owns the request and finishes
+ * it under a lock, so a timeout that fires while the worker forwards waits for the
+ * forward instead of answering a second time. The work runs in the replica routing
+ * scope of the request, so a client pinned to the primary reads from it here as well.
+ *
+ * <p>Configured with {@code taxi.bulkhead.<name>.threads}, {@code .queueSize} and
+ * {@code .timeoutMillis}. Keep the threads of all bulkheads below
+ * {@code taxi.db.pool.maxSize}, so synchronous endpoints still get connections.
+ */
+public class Bulkhead {
+    private static final String PROPERTY_PREFIX = "taxi.bulkhead.";
+    private static final int SERVICE_UNAVAILABLE = 503;
+    private static final int SERVER_ERROR = 500;
+    private static final Map<String, Bulkhead> registry = new ConcurrentHashMap<>();
+    private static final Logger logger = LogManager.getLogger(Bulkhead.class);
+    private final String name;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    private Bulkhead(String name, int threads, int queueSize, long timeoutMillis) {
+        this.name = name;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable,
+                    "taxi-" + name + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), threadFactory);
+    }
+
+    /**
+     * Returns the bulkhead with the given name, creating it from its system
+     * properties on first use.
+     */
+    public static Bulkhead of(String name) {
+        return registry.computeIfAbsent(name, key -> new Bulkhead(key,
+                AppConfig.getInt(PROPERTY_PREFIX + key + ".threads", 4),
+                AppConfig.getInt(PROPERTY_PREFIX + key + ".queueSize", 16),
+                AppConfig.getLong(PROPERTY_PREFIX + key + ".timeoutMillis", 10_000)));
+    }
+
+    public static Map<String, Bulkhead> getRegistered() {
+        return Collections.unmodifiableMap(registry);
+    }
+
+    public static void shutdownAll() {
+        registry.values().forEach(bulkhead -> bulkhead.executor.shutdownNow());
+    }
+
+    /**
+     * Computes the request attributes on this bulkhead and forwards to {@code view}.
+     * The work must not touch the request or response: after a timeout they belong to
+     * the container again, so anything it needs has to be read beforehand.
+     */
+    public void dispatch(HttpServletRequest req, HttpServletResponse resp, String view,
+                         Supplier<Map<String, Object>> work) throws IOException {
+        AsyncContext context = req.startAsync(req, resp);
+        context.setTimeout(timeoutMillis);
+        AsyncRequest request = new AsyncRequest(context);
+        context.addListener(new TimeoutListener(request));
+        String path = req.getServletPath();
+        try {
+            executor.execute(RoutingDataSource.inCurrentScope(() -> {
+                Map<String, Object> attributes;
+                try {
+                    attributes = work.get();
+                } catch (RuntimeException e) {
+                    logger.error("Request to {} failed in bulkhead {}", path, name, e);
+                    request.finish(() -> sendError(context, SERVER_ERROR));
+                    return;
+                }
+                request.finish(() -> {
+                    attributes.forEach(req::setAttribute);
+                    context.dispatch(view);
+                });
+            }));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            logger.warn("Bulkhead {} is full, rejecting {}", name, path);
+            request.finish(() -> {
+                resp.setHeader("Retry-After", "1");
+                sendError(context, SERVICE_UNAVAILABLE);
+            });
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getActive() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueued() {
+        return executor.getQueue().size();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getTimedOut() {
+        return timedOut.sum();
+    }
+
+    private static void sendError(AsyncContext context, int status) {
+        try {
+            ((HttpServletResponse) context.getResponse()).sendError(status);
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Can't send {} for async request", status, e);
+        }
+        context.complete();
+    }
+
+    /**
+     * The async request of one dispatch. The first caller of {@link #finish} owns it
+     * and completes or forwards it while holding the lock; later callers get false.
+     * The container calls onTimeout on its own thread, so holding the lock makes a
+     * timeout wait until a forward in progress has been handed to the container.
+     */
+    private static class AsyncRequest {
+        private final AsyncContext context;
+        private boolean finished;
+
+        private AsyncRequest(AsyncContext context) {
+            this.context = context;
+        }
+
+        private synchronized boolean finish(Runnable action) {
+            if (finished) {
+                return false;
+            }
+            finished = true;
+            action.run();
+            return true;
+        }
+    }
+
+    private class TimeoutListener implements AsyncListener {
+        private final AsyncRequest request;
+
+        private TimeoutListener(AsyncRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            boolean owned = request.finish(() -> {
+                timedOut.increment();
+                logger.warn("Request timed out in bulkhead {} after {} ms",
+                        name, timeoutMillis);
+                sendError(request.context, SERVICE_UNAVAILABLE);
+            });
+            if (!owned) {
+                logger.debug("Timeout in bulkhead {} after the request was finished", name);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            request.finish(() -> logger.debug("Async request failed in bulkhead {}", name,
+                    event.getThrowable()));
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
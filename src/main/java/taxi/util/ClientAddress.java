@@ -0,0 +1,52 @@
+package taxi.util;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Resolves the address of the client behind a request. Requests that arrive from one of
+ * the comma separated addresses in {@code taxi.http.trustedProxies} (none by default)
+ * are attributed to the right-most {@code X-Forwarded-For} entry that is not itself a
+ * trusted proxy. The header is ignored on requests from anyone else, since a client
+ * can put any address in it.
+ */
+public final class ClientAddress {
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+    private static final Set<String> TRUSTED_PROXIES = parse(
+            AppConfig.get("taxi.http.trustedProxies", ""));
+
+    private ClientAddress() {
+    }
+
+    public static String of(HttpServletRequest req) {
+        String address = req.getRemoteAddr();
+        if (!TRUSTED_PROXIES.contains(address)) {
+            return address;
+        }
+        String forwarded = req.getHeader(FORWARDED_FOR);
+        if (forwarded == null) {
+            return address;
+        }
+        String[] hops = forwarded.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                continue;
+            }
+            address = hop;
+            if (!TRUSTED_PROXIES.contains(hop)) {
+                break;
+            }
+        }
+        return address;
+    }
+
+    private static Set<String> parse(String addresses) {
+        return Arrays.stream(addresses.split(","))
+                .map(String::trim)
+                .filter(address -> !address.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -0,0 +1,389 @@
+package taxi.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Bounded pool of physical JDBC connections. Borrowed connections are handed
+ * out as proxies whose {@code close()} returns the physical connection to the pool.
+ * On return an open transaction is rolled back, and a borrower that changed the
+ * read-only flag or the isolation level has them reset to the values the
+ * connection was opened with, so the next borrower gets a clean session.
+ */
+public class ConnectionPool extends AbstractDataSource implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(ConnectionPool.class);
+    private final String url;
+    private final Properties properties;
+    private final PoolConfig config;
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition available = lock.newCondition();
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final ScheduledExecutorService housekeeper;
+    private int total;
+    private int waiters;
+    private boolean closed;
+
+    public ConnectionPool(String url, Properties properties, PoolConfig config) {
+        if (config.getMinSize() < 0 || config.getMaxSize() < 1
+                || config.getMinSize() > config.getMaxSize()) {
+            throw new IllegalArgumentException("Invalid pool size: " + config);
+        }
+        this.url = url;
+        this.properties = properties;
+        this.config = config;
+        housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "taxi-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0,
+                config.getHousekeepingPeriodMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        long remaining = TimeUnit.MILLISECONDS.toNanos(config.getBorrowTimeoutMillis());
+        lock.lock();
+        try {
+            while (true) {
+                if (closed) {
+                    throw new SQLException("Connection pool is closed");
+                }
+                PooledConnection pooled = idle.pollFirst();
+                if (pooled != null) {
+                    lock.unlock();
+                    boolean usable;
+                    try {
+                        usable = isUsable(pooled);
+                        if (!usable) {
+                            pooled.destroy();
+                        }
+                    } finally {
+                        lock.lock();
+                    }
+                    if (usable) {
+                        return borrowed(pooled, start);
+                    }
+                    total--;
+                    continue;
+                }
+                if (total < config.getMaxSize()) {
+                    total++;
+                    lock.unlock();
+                    PooledConnection created = null;
+                    try {
+                        created = open();
+                    } finally {
+                        lock.lock();
+                        if (created == null) {
+                            total--;
+                            available.signal();
+                        }
+                    }
+                    return borrowed(created, start);
+                }
+                if (remaining <= 0) {
+                    timeoutCount.incrementAndGet();
+                    throw new SQLTransientConnectionException("Timed out after "
+                            + config.getBorrowTimeoutMillis() + " ms waiting for a connection, "
+                            + "active: " + (total - idle.size()) + ", waiters: " + waiters);
+                }
+                waiters++;
+                try {
+                    remaining = available.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for a connection", e);
+                } finally {
+                    waiters--;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of borrowed connections.
+     */
+    public int getActive() {
+        lock.lock();
+        try {
+            return total - idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public PoolStats getStats() {
+        lock.lock();
+        try {
+            return new PoolStats(total - idle.size(), idle.size(), waiters,
+                    borrowCount.get(), timeoutCount.get(), waitTime,
+                    statementCacheHits.sum(), statementCacheMisses.sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        housekeeper.shutdownNow();
+        List<PooledConnection> toDestroy;
+        lock.lock();
+        try {
+            closed = true;
+            toDestroy = new ArrayList<>(idle);
+            total -= idle.size();
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        toDestroy.forEach(PooledConnection::destroy);
+    }
+
+    private Connection borrowed(PooledConnection pooled, long start) {
+        waitTime.recordNanos(System.nanoTime() - start);
+        borrowCount.incrementAndGet();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConnectionHandle(pooled));
+    }
+
+    private PooledConnection open() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, properties);
+        try {
+            return new PooledConnection(connection);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        long now = System.currentTimeMillis();
+        if (pooled.isExpired(now)) {
+            return false;
+        }
+        if (now - pooled.lastUsedAt < config.getValidationIntervalMillis()) {
+            return true;
+        }
+        try {
+            return pooled.connection.isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        if (pooled.statements != null) {
+            pooled.statements.releaseAll();
+        }
+        boolean reusable;
+        try {
+            if (!pooled.connection.getAutoCommit()) {
+                pooled.connection.rollback();
+                pooled.connection.setAutoCommit(true);
+            }
+            if (pooled.sessionChanged) {
+                pooled.connection.setReadOnly(pooled.defaultReadOnly);
+                pooled.connection.setTransactionIsolation(pooled.defaultIsolation);
+                pooled.sessionChanged = false;
+            }
+            reusable = !pooled.connection.isClosed()
+                    && !pooled.isExpired(System.currentTimeMillis());
+        } catch (SQLException e) {
+            logger.warn("Discarding broken connection", e);
+            reusable = false;
+        }
+        pooled.lastUsedAt = System.currentTimeMillis();
+        boolean returned = false;
+        lock.lock();
+        try {
+            if (reusable && !closed) {
+                idle.addFirst(pooled);
+                returned = true;
+            } else {
+                total--;
+            }
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (!returned) {
+            pooled.destroy();
+        }
+    }
+
+    private void housekeep() {
+        try {
+            evictIdle();
+            fillToMinimum();
+            logger.debug("Connection pool state: {}", getStats());
+        } catch (RuntimeException e) {
+            logger.error("Connection pool housekeeping failed", e);
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        List<PooledConnection> evicted = new ArrayList<>();
+        lock.lock();
+        try {
+            Iterator<PooledConnection> iterator = idle.descendingIterator();
+            while (iterator.hasNext()) {
+                PooledConnection pooled = iterator.next();
+                boolean idleTooLong = now - pooled.lastUsedAt > config.getIdleTimeoutMillis()
+                        && total > config.getMinSize();
+                if (idleTooLong || pooled.isExpired(now)) {
+                    iterator.remove();
+                    total--;
+                    evicted.add(pooled);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        evicted.forEach(PooledConnection::destroy);
+    }
+
+    private void fillToMinimum() {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || total >= config.getMinSize()) {
+                    return;
+                }
+                total++;
+            } finally {
+                lock.unlock();
+            }
+            PooledConnection pooled;
+            try {
+                pooled = open();
+            } catch (SQLException e) {
+                lock.lock();
+                total--;
+                lock.unlock();
+                logger.warn("Can't open connection to keep pool minimum", e);
+                return;
+            }
+            lock.lock();
+            try {
+                idle.addLast(pooled);
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private class PooledConnection {
+        private final Connection connection;
+        private final StatementCache statements;
+        private final boolean defaultReadOnly;
+        private final int defaultIsolation;
+        private final long createdAt;
+        private volatile long lastUsedAt;
+        private boolean sessionChanged;
+
+        private PooledConnection(Connection connection) throws SQLException {
+            this.connection = connection;
+            defaultReadOnly = connection.isReadOnly();
+            defaultIsolation = connection.getTransactionIsolation();
+            statements = config.getStatementCacheSize() > 0
+                    ? new StatementCache(connection, config.getStatementCacheSize(),
+                            statementCacheHits, statementCacheMisses)
+                    : null;
+            createdAt = System.currentTimeMillis();
+            lastUsedAt = createdAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - createdAt > config.getMaxLifetimeMillis();
+        }
+
+        private void destroy() {
+            if (statements != null) {
+                statements.close();
+            }
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.debug("Can't close physical connection", e);
+            }
+        }
+    }
+
+    private class ConnectionHandle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean released;
+
+        private ConnectionHandle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || pooled.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + pooled.connection;
+                default:
+                    if (released) {
+                        throw new SQLException("Connection is already returned to the pool");
+                    }
+                    if (method.getName().equals("setReadOnly")
+                            || method.getName().equals("setTransactionIsolation")) {
+                        pooled.sessionChanged = true;
+                    }
+                    if (pooled.statements != null && method.getName().equals("prepareStatement")) {
+                        return pooled.statements.prepare((Connection) proxy, method, args);
+                    }
+                    try {
+                        return method.invoke(pooled.connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
@@ -1,15 +1,32 @@
 package taxi.util;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import javax.sql.DataSource;
 
+/**
+ * Entry point of the DAOs to the database. The primary is configured with
+ * {@code taxi.db.url}, {@code taxi.db.username} and {@code taxi.db.password}; replicas
+ * for read-only queries with the comma separated {@code taxi.db.replica.urls} and
+ * optionally their own {@code taxi.db.replica.username} and
+ * {@code taxi.db.replica.password}. Replicas are assumed to catch up within
+ * {@code taxi.db.replica.stickySeconds}. Every database gets a pool configured by
+ * {@code taxi.db.pool.*}. See {@link AppConfig} for where settings are read from.
+ */
 public class ConnectionUtil {
     private static final String URL = "Url connection string to DB";
     private static final String USERNAME = "USERNAME";
     private static final String PASSWORD = "PASSWORD";
     private static final String JDBC_DRIVER = "com.mysql.cj.jdbc.Driver";
+    private static final String MYSQL_URL_PREFIX = "jdbc:mysql:";
+    private static final String POOL_PROPERTY_PREFIX = "taxi.db.pool.";
+    private static final int REPLICA_STICKY_SECONDS =
+            AppConfig.getInt("taxi.db.replica.stickySeconds", 5);
+    private static final RoutingDataSource dataSource;
 
     static {
         try {
@@ -17,16 +34,113 @@ public class ConnectionUtil {
         } catch (ClassNotFoundException e) {
             throw new RuntimeException("Can't find SQL Driver", e);
         }
+        PoolConfig poolConfig = readPoolConfig();
+        String username = AppConfig.get("taxi.db.username", USERNAME);
+        String password = AppConfig.get("taxi.db.password", PASSWORD);
+        String url = AppConfig.get("taxi.db.url", URL);
+        ConnectionPool primary = new ConnectionPool(url,
+                connectionProperties(url, username, password), poolConfig);
+        List<ConnectionPool> replicas = new ArrayList<>();
+        for (String replicaUrl : AppConfig.get("taxi.db.replica.urls", "").split(",")) {
+            if (!replicaUrl.isBlank()) {
+                replicas.add(new ConnectionPool(replicaUrl.trim(), connectionProperties(
+                        replicaUrl.trim(), AppConfig.get("taxi.db.replica.username", username),
+                        AppConfig.get("taxi.db.replica.password", password)), poolConfig));
+            }
+        }
+        dataSource = new RoutingDataSource(primary, replicas, RoutingDataSource.Strategy
+                .valueOf(AppConfig.get("taxi.db.replica.strategy", "ROUND_ROBIN")
+                        .toUpperCase()));
     }
 
+    /**
+     * Returns a connection to the primary, or the connection of the current transaction.
+     */
     public static Connection getConnection() {
-        Properties dbProperties = new Properties();
-        dbProperties.setProperty("user", USERNAME);
-        dbProperties.setProperty("password", PASSWORD);
+        Connection transactional = TransactionManager.currentConnection();
+        if (transactional != null) {
+            return transactional;
+        }
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException e) {
+            throw new RuntimeException("Can't create connection to DB ", e);
+        }
+    }
+
+    /**
+     * Returns a connection for queries that may see data a little behind the primary:
+     * a replica if there is one, or the connection of the current transaction.
+     */
+    public static Connection getReadOnlyConnection() {
+        Connection transactional = TransactionManager.currentConnection();
+        if (transactional != null) {
+            return transactional;
+        }
         try {
-            return DriverManager.getConnection(URL, dbProperties);
+            return dataSource.getReadOnlyConnection();
         } catch (SQLException e) {
             throw new RuntimeException("Can't create connection to DB ", e);
         }
     }
+
+    public static DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public static boolean hasReplicas() {
+        return dataSource.hasReplicas();
+    }
+
+    /**
+     * Returns how long after a write reads should stay on the primary.
+     */
+    public static int getReplicaStickySeconds() {
+        return REPLICA_STICKY_SECONDS;
+    }
+
+    public static PoolStats getPoolStats() {
+        return dataSource.getPrimaryStats();
+    }
+
+    public static Map<String, PoolStats> getAllPoolStats() {
+        return dataSource.getPoolStats();
+    }
+
+    public static void shutdown() {
+        dataSource.close();
+    }
+
+    private static Properties connectionProperties(String url, String username,
+                                                   String password) {
+        Properties dbProperties = new Properties();
+        dbProperties.setProperty("user", username);
+        dbProperties.setProperty("password", password);
+        if (url.startsWith(MYSQL_URL_PREFIX)) {
+            dbProperties.setProperty("rewriteBatchedStatements", "true");
+            dbProperties.setProperty("useCursorFetch", "true");
+            dbProperties.setProperty("useServerPrepStmts", "true");
+        }
+        return dbProperties;
+    }
+
+    private static PoolConfig readPoolConfig() {
+        PoolConfig config = new PoolConfig();
+        config.setMinSize(AppConfig.getInt(POOL_PROPERTY_PREFIX + "minSize",
+                config.getMinSize()));
+        config.setMaxSize(AppConfig.getInt(POOL_PROPERTY_PREFIX + "maxSize",
+                config.getMaxSize()));
+        config.setBorrowTimeoutMillis(AppConfig.getLong(POOL_PROPERTY_PREFIX
+                + "borrowTimeoutMillis", config.getBorrowTimeoutMillis()));
+        config.setIdleTimeoutMillis(AppConfig.getLong(POOL_PROPERTY_PREFIX + "idleTimeoutMillis",
+                config.getIdleTimeoutMillis()));
+        config.setMaxLifetimeMillis(AppConfig.getLong(POOL_PROPERTY_PREFIX + "maxLifetimeMillis",
+                config.getMaxLifetimeMillis()));
+        config.setValidationIntervalMillis(AppConfig.getLong(
+                POOL_PROPERTY_PREFIX + "validationIntervalMillis",
+                config.getValidationIntervalMillis()));
+        config.setStatementCacheSize(AppConfig.getInt(POOL_PROPERTY_PREFIX
+                + "statementCacheSize", config.getStatementCacheSize()));
+        return config;
+    }
 }
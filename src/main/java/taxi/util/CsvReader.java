@@ -0,0 +1,105 @@
+package taxi.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 style CSV: comma separated fields, optionally enclosed in double
+ * quotes, with {@code ""} standing for a quote inside a quoted field. Quoted fields
+ * may span lines. Blank lines are skipped.
+ */
+public class CsvReader implements Closeable {
+    private static final int END = -1;
+    private final Reader reader;
+    private long lineNumber = 1;
+    private long recordLineNumber;
+    private int pushedBack = END;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Returns the fields of the next record, or null at the end of the input.
+     */
+    public List<String> readRecord() throws IOException {
+        int next = read();
+        while (next == '\r' || next == '\n') {
+            skipLineBreak(next);
+            next = read();
+        }
+        if (next == END) {
+            return null;
+        }
+        recordLineNumber = lineNumber;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (next == END) {
+                    throw new IOException("Unterminated quoted field starting on line "
+                            + recordLineNumber);
+                }
+                if (next == '"') {
+                    next = read();
+                    if (next != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                } else if (next == '\n') {
+                    lineNumber++;
+                }
+                field.append((char) next);
+            } else if (next == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (next == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (next == '\r' || next == '\n' || next == END) {
+                fields.add(field.toString());
+                if (next != END) {
+                    skipLineBreak(next);
+                }
+                return fields;
+            } else {
+                field.append((char) next);
+            }
+            next = read();
+        }
+    }
+
+    /**
+     * Returns the line the last record returned by {@link #readRecord()} starts on.
+     */
+    public long getLineNumber() {
+        return recordLineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void skipLineBreak(int lineBreak) throws IOException {
+        lineNumber++;
+        if (lineBreak == '\r') {
+            int next = read();
+            if (next != '\n') {
+                pushedBack = next;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != END) {
+            int next = pushedBack;
+            pushedBack = END;
+            return next;
+        }
+        return reader.read();
+    }
+}
@@ -0,0 +1,64 @@
+package taxi.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes RFC 4180 CSV records, quoting fields that contain a comma, a quote or a
+ * line break. Counterpart of {@link CsvReader}.
+ */
+public class CsvWriter {
+    private static final char LIST_SEPARATOR = ';';
+    private static final char LIST_ESCAPE = '\\';
+    private final Writer writer;
+
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void writeRecord(Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (fields[i] != null) {
+                writeField(fields[i].toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Joins several values into one field, separated by {@code ;}. A {@code ;} or
+     * {@code \} inside a value is escaped with a backslash, and null values are empty.
+     */
+    public static String joinList(List<String> values) {
+        StringBuilder list = new StringBuilder();
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                list.append(LIST_SEPARATOR);
+            }
+            String value = values.get(i);
+            for (int j = 0; value != null && j < value.length(); j++) {
+                char c = value.charAt(j);
+                if (c == LIST_SEPARATOR || c == LIST_ESCAPE) {
+                    list.append(LIST_ESCAPE);
+                }
+                list.append(c);
+            }
+        }
+        return list.toString();
+    }
+
+    private void writeField(String field) throws IOException {
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0
+                && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            writer.write(field);
+            return;
+        }
+        writer.write('"');
+        writer.write(field.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
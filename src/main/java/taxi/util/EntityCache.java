@@ -0,0 +1,196 @@
+package taxi.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Size-bounded LRU cache with optional time-to-live. Values are loaded through
+ * the loader passed to {@link #get(Object, Function)} on a miss; writers are
+ * expected to call {@link #invalidate(Object)} after changing the source.
+ */
+public class EntityCache<K, V> {
+    private static final Map<String, EntityCache<?, ?>> registry = new ConcurrentHashMap<>();
+    private final String name;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Map<K, Entry<V>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long generation;
+
+    /**
+     * Creates and registers a cache.
+     *
+     * @param name      name the cache statistics are reported under
+     * @param maxSize   maximum number of entries before the least recently used is evicted
+     * @param ttlMillis time after which an entry is reloaded, 0 to keep entries until evicted
+     */
+    public EntityCache(String name, int maxSize, long ttlMillis) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > EntityCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        registry.put(name, this);
+    }
+
+    public static Map<String, EntityCache<?, ?>> getRegistered() {
+        return Collections.unmodifiableMap(registry);
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        long now = System.currentTimeMillis();
+        long loadGeneration;
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && (ttlMillis == 0 || entry.expiresAt > now)) {
+                hits.increment();
+                return entry.value;
+            }
+            loadGeneration = generation;
+        }
+        misses.increment();
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (entries) {
+                if (loadGeneration == generation) {
+                    entries.put(key, new Entry<>(value, now + ttlMillis));
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the cached value of the key without loading it, or null.
+     */
+    public V getIfPresent(K key) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && (ttlMillis == 0 || entry.expiresAt > now)) {
+                hits.increment();
+                return entry.value;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(K key, V value) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, now + ttlMillis));
+        }
+    }
+
+    /**
+     * Returns the values of the given keys, loading all missing ones with a single
+     * call to {@code loader}. Keys the loader doesn't return are left out.
+     */
+    public Map<K, V> getAll(Collection<K> keys, Function<Collection<K>, Map<K, V>> loader) {
+        long now = System.currentTimeMillis();
+        Map<K, V> values = new HashMap<>();
+        List<K> missing = new ArrayList<>();
+        long loadGeneration;
+        synchronized (entries) {
+            for (K key : keys) {
+                Entry<V> entry = entries.get(key);
+                if (entry != null && (ttlMillis == 0 || entry.expiresAt > now)) {
+                    values.put(key, entry.value);
+                } else {
+                    missing.add(key);
+                }
+            }
+            loadGeneration = generation;
+        }
+        hits.add(values.size());
+        if (missing.isEmpty()) {
+            return values;
+        }
+        misses.add(missing.size());
+        Map<K, V> loaded = loader.apply(missing);
+        synchronized (entries) {
+            if (loadGeneration == generation) {
+                loaded.forEach((key, value) ->
+                        entries.put(key, new Entry<>(value, now + ttlMillis)));
+            }
+        }
+        values.putAll(loaded);
+        return values;
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+            generation++;
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            generation++;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "EntityCache{"
+                + "name='" + name + '\''
+                + ", size=" + size()
+                + ", hits=" + getHits()
+                + ", misses=" + getMisses()
+                + ", evictions=" + getEvictions()
+                + '}';
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package taxi.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram {
+    private static final long[] DEFAULT_BOUNDS_MICROS = {
+            100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000,
+            100_000, 250_000, 500_000, 1_000_000, 2_500_000, 5_000_000, 10_000_000};
+    private static final long NANOS_IN_MICRO = 1_000;
+    private final long[] boundsMicros;
+    private final LongAdder[] buckets;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+
+    public LatencyHistogram() {
+        this(DEFAULT_BOUNDS_MICROS);
+    }
+
+    public LatencyHistogram(long[] boundsMicros) {
+        this.boundsMicros = boundsMicros.clone();
+        buckets = new LongAdder[boundsMicros.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void recordNanos(long nanos) {
+        long micros = nanos / NANOS_IN_MICRO;
+        int index = 0;
+        while (index < boundsMicros.length && micros > boundsMicros[index]) {
+            index++;
+        }
+        buckets[index].increment();
+        count.increment();
+        sumMicros.add(micros);
+    }
+
+    public long[] getBoundsMicros() {
+        return boundsMicros.clone();
+    }
+
+    /**
+     * Returns the number of recorded values per bucket. The last element
+     * holds the values above the largest bound.
+     */
+    public long[] getBucketCounts() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSumMicros() {
+        return sumMicros.sum();
+    }
+}
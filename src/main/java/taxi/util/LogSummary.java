@@ -0,0 +1,48 @@
+package taxi.util;
+
+import java.util.Collection;
+import java.util.Iterator;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+
+/**
+ * Log message parameter that renders a collection as its size followed by at most
+ * {@code taxi.log.maxItems} elements (10 by default, a negative value prints all of them).
+ * Elements are only formatted when the event is actually written, straight into the
+ * layout's buffer.
+ */
+public final class LogSummary implements StringBuilderFormattable {
+    private static final int MAX_ITEMS = AppConfig.getInt("taxi.log.maxItems", 10);
+    private final Collection<?> items;
+
+    private LogSummary(Collection<?> items) {
+        this.items = items;
+    }
+
+    public static LogSummary of(Collection<?> items) {
+        return new LogSummary(items);
+    }
+
+    @Override
+    public void formatTo(StringBuilder buffer) {
+        buffer.append(items.size()).append(" items [");
+        Iterator<?> iterator = items.iterator();
+        for (int i = 0; iterator.hasNext(); i++) {
+            if (MAX_ITEMS >= 0 && i == MAX_ITEMS) {
+                buffer.append(", ...");
+                break;
+            }
+            if (i > 0) {
+                buffer.append(", ");
+            }
+            buffer.append(iterator.next());
+        }
+        buffer.append(']');
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buffer = new StringBuilder();
+        formatTo(buffer);
+        return buffer.toString();
+    }
+}
@@ -0,0 +1,140 @@
+package taxi.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Open-addressing set of positive long ids with linear probing, so members are
+ * stored without boxing. 0 marks a free slot and can't be added. Not thread-safe.
+ */
+public class LongHashSet {
+    private static final long FREE = 0;
+    private static final int DEFAULT_EXPECTED_SIZE = 3;
+    private static final int MIN_CAPACITY = 4;
+    private long[] slots;
+    private int size;
+
+    public LongHashSet() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    public LongHashSet(int expectedSize) {
+        slots = new long[capacityFor(expectedSize)];
+    }
+
+    public boolean add(long value) {
+        if (value == FREE) {
+            throw new IllegalArgumentException("Can't add " + FREE + " to a LongHashSet");
+        }
+        int index = indexOf(slots, value);
+        if (slots[index] == value) {
+            return false;
+        }
+        slots[index] = value;
+        if (isOverloaded(++size, slots.length)) {
+            resize(slots.length * 2);
+        }
+        return true;
+    }
+
+    public boolean remove(long value) {
+        if (value == FREE) {
+            return false;
+        }
+        int index = indexOf(slots, value);
+        if (slots[index] != value) {
+            return false;
+        }
+        slots[index] = FREE;
+        size--;
+        int mask = slots.length - 1;
+        int next = (index + 1) & mask;
+        while (slots[next] != FREE) {
+            long moved = slots[next];
+            slots[next] = FREE;
+            slots[indexOf(slots, moved)] = moved;
+            next = (next + 1) & mask;
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        return value != FREE && slots[indexOf(slots, value)] == value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void forEach(LongConsumer action) {
+        for (long value : slots) {
+            if (value != FREE) {
+                action.accept(value);
+            }
+        }
+    }
+
+    /**
+     * Returns the members in ascending order.
+     */
+    public long[] toArray() {
+        long[] values = new long[size];
+        int count = 0;
+        for (long value : slots) {
+            if (value != FREE) {
+                values[count++] = value;
+            }
+        }
+        Arrays.sort(values);
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    static int hash(long value) {
+        long mixed = value * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (isOverloaded(expectedSize, capacity)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Tables are kept at most three quarters full, which also keeps a free slot
+     * to end every probe.
+     */
+    static boolean isOverloaded(int size, int capacity) {
+        return size * 4L > capacity * 3L;
+    }
+
+    private static int indexOf(long[] slots, long value) {
+        int mask = slots.length - 1;
+        int index = hash(value) & mask;
+        while (slots[index] != FREE && slots[index] != value) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void resize(int capacity) {
+        long[] old = slots;
+        slots = new long[capacity];
+        for (long value : old) {
+            if (value != FREE) {
+                slots[indexOf(slots, value)] = value;
+            }
+        }
+    }
+}
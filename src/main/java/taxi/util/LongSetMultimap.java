@@ -0,0 +1,128 @@
+package taxi.util;
+
+/**
+ * Open-addressing map from positive long keys to {@link LongHashSet}s, so neither
+ * keys nor values are boxed. Keys whose set becomes empty are removed. Not
+ * thread-safe.
+ */
+public class LongSetMultimap {
+    private static final long FREE = 0;
+    private long[] keys;
+    private LongHashSet[] values;
+    private int size;
+
+    public LongSetMultimap() {
+        this(0);
+    }
+
+    public LongSetMultimap(int expectedKeys) {
+        keys = new long[LongHashSet.capacityFor(expectedKeys)];
+        values = new LongHashSet[keys.length];
+    }
+
+    public boolean put(long key, long value) {
+        if (key == FREE) {
+            throw new IllegalArgumentException("Can't use " + FREE + " as a LongSetMultimap key");
+        }
+        int index = indexOf(keys, key);
+        if (keys[index] == key) {
+            return values[index].add(value);
+        }
+        LongHashSet set = new LongHashSet();
+        set.add(value);
+        keys[index] = key;
+        values[index] = set;
+        if (LongHashSet.isOverloaded(++size, keys.length)) {
+            resize(keys.length * 2);
+        }
+        return true;
+    }
+
+    public boolean remove(long key, long value) {
+        if (key == FREE) {
+            return false;
+        }
+        int index = indexOf(keys, key);
+        if (keys[index] != key || !values[index].remove(value)) {
+            return false;
+        }
+        if (values[index].isEmpty()) {
+            removeAt(index);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the key and returns its set, or null if there was none.
+     */
+    public LongHashSet removeAll(long key) {
+        if (key == FREE) {
+            return null;
+        }
+        int index = indexOf(keys, key);
+        if (keys[index] != key) {
+            return null;
+        }
+        LongHashSet removed = values[index];
+        removeAt(index);
+        return removed;
+    }
+
+    /**
+     * Returns the live set of the key, or null if there is none. Callers must not
+     * modify it.
+     */
+    public LongHashSet get(long key) {
+        if (key == FREE) {
+            return null;
+        }
+        int index = indexOf(keys, key);
+        return keys[index] == key ? values[index] : null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void removeAt(int index) {
+        keys[index] = FREE;
+        values[index] = null;
+        size--;
+        int mask = keys.length - 1;
+        int next = (index + 1) & mask;
+        while (keys[next] != FREE) {
+            long movedKey = keys[next];
+            keys[next] = FREE;
+            int target = indexOf(keys, movedKey);
+            keys[target] = movedKey;
+            if (target != next) {
+                values[target] = values[next];
+                values[next] = null;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    private static int indexOf(long[] keys, long key) {
+        int mask = keys.length - 1;
+        int index = LongHashSet.hash(key) & mask;
+        while (keys[index] != FREE && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        LongHashSet[] oldValues = values;
+        keys = new long[capacity];
+        values = new LongHashSet[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int index = indexOf(keys, oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+}
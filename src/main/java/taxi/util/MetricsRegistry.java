@@ -0,0 +1,67 @@
+package taxi.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide request and DAO call metrics, keyed by servlet URL pattern and by
+ * {@code Interface.method} respectively.
+ */
+public class MetricsRegistry {
+    private static final Map<String, OperationMetrics> httpMetrics = new ConcurrentHashMap<>();
+    private static final Map<String, OperationMetrics> daoMetrics = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {
+    }
+
+    public static OperationMetrics http(String pattern) {
+        return lookup(httpMetrics, pattern);
+    }
+
+    public static OperationMetrics dao(String method) {
+        return lookup(daoMetrics, method);
+    }
+
+    public static Map<String, OperationMetrics> getHttpMetrics() {
+        return Collections.unmodifiableMap(httpMetrics);
+    }
+
+    public static Map<String, OperationMetrics> getDaoMetrics() {
+        return Collections.unmodifiableMap(daoMetrics);
+    }
+
+    /**
+     * Wraps a DAO so that every call of a method of {@code daoInterface} is timed
+     * under {@code SimpleInterfaceName.method}.
+     */
+    public static Object timedDao(Class<?> daoInterface, Object dao) {
+        return Proxy.newProxyInstance(daoInterface.getClassLoader(),
+                new Class<?>[] {daoInterface}, (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return method.invoke(dao, args);
+                    }
+                    OperationMetrics metrics = dao(daoInterface.getSimpleName()
+                            + "." + method.getName());
+                    long start = System.nanoTime();
+                    boolean failed = true;
+                    try {
+                        Object result = method.invoke(dao, args);
+                        failed = false;
+                        return result;
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    } finally {
+                        metrics.record(System.nanoTime() - start, failed);
+                    }
+                });
+    }
+
+    private static OperationMetrics lookup(Map<String, OperationMetrics> metrics, String key) {
+        OperationMetrics existing = metrics.get(key);
+        return existing != null ? existing
+                : metrics.computeIfAbsent(key, name -> new OperationMetrics());
+    }
+}
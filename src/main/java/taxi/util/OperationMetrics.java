@@ -0,0 +1,27 @@
+package taxi.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class OperationMetrics {
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    public void record(long nanos, boolean failed) {
+        latency.recordNanos(nanos);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+}
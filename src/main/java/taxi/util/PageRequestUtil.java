@@ -0,0 +1,54 @@
+package taxi.util;
+
+import javax.servlet.http.HttpServletRequest;
+import taxi.model.PageRequest;
+
+public class PageRequestUtil {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Reads the {@code after}, {@code before} and {@code size} cursor parameters and
+     * the {@code manufacturer_id} filter from the request. Parameters that aren't
+     * numbers are ignored, as if they were missing.
+     *
+     * @param req             the list page request
+     * @param prefixParameter name of the parameter holding the prefix filter
+     * @return the page request
+     */
+    public static PageRequest fromRequest(HttpServletRequest req, String prefixParameter) {
+        PageRequest pageRequest = new PageRequest(DEFAULT_PAGE_SIZE);
+        Long size = parseLong(req.getParameter("size"));
+        if (size != null) {
+            pageRequest.setSize((int) Math.max(1, Math.min(MAX_PAGE_SIZE, size)));
+        }
+        Long before = parseLong(req.getParameter("before"));
+        Long after = parseLong(req.getParameter("after"));
+        if (before != null) {
+            pageRequest.setBeforeId(before);
+        } else if (after != null) {
+            pageRequest.setAfterId(after);
+        }
+        pageRequest.setManufacturerId(parseLong(req.getParameter("manufacturer_id")));
+        String prefix = req.getParameter(prefixParameter);
+        if (!isBlank(prefix)) {
+            pageRequest.setPrefix(prefix.trim());
+        }
+        return pageRequest;
+    }
+
+    private static Long parseLong(String value) {
+        if (isBlank(value)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,119 @@
+package taxi.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Salted PBKDF2-HMAC-SHA256 password hashes, stored as
+ * {@code pbkdf2$<iterations>$<salt>$<hash>} with base64 salt and hash. The cost is
+ * {@code taxi.auth.pbkdf2.iterations}; hashes made with another count still verify
+ * and are reported by {@link #needsRehash(String)}, as long as the count is within a
+ * factor of {@value #COST_SPREAD} of the configured one. Hashes outside that range are
+ * refused, so a tampered or imported hash can't make one sign-in run for minutes. Values
+ * without the prefix are legacy plain text passwords.
+ *
+ * <p>Every verification costs one full derivation, about 30 ms of CPU at the default
+ * 100 000 iterations, so a core checks roughly 34 passwords a second. Raise the count
+ * when sign-in volume and cores allow it.
+ */
+public final class PasswordHasher {
+    private static final String PREFIX = "pbkdf2$";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final int ITERATIONS = AppConfig.getInt("taxi.auth.pbkdf2.iterations",
+            100_000);
+    private static final int COST_SPREAD = 4;
+    private static final int MIN_ITERATIONS = Math.max(1, ITERATIONS / COST_SPREAD);
+    private static final int MAX_ITERATIONS =
+            (int) Math.min(Integer.MAX_VALUE, (long) ITERATIONS * COST_SPREAD);
+    private static final SecureRandom random = new SecureRandom();
+
+    private PasswordHasher() {
+    }
+
+    public static String hash(String password) {
+        return hash(password, ITERATIONS);
+    }
+
+    public static String hash(String password, int iterations) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + "$" + encoder.encodeToString(salt) + "$"
+                + encoder.encodeToString(derive(password, salt, iterations));
+    }
+
+    public static boolean isHash(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    /**
+     * Returns whether the value is a complete hash in the stored format, as required of
+     * passwords imported already hashed.
+     */
+    public static boolean isWellFormed(String value) {
+        if (!isHash(value)) {
+            return false;
+        }
+        String[] parts = value.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            Base64.Decoder decoder = Base64.getDecoder();
+            int iterations = Integer.parseInt(parts[1]);
+            return iterations >= MIN_ITERATIONS && iterations <= MAX_ITERATIONS
+                    && decoder.decode(parts[2]).length > 0
+                    && decoder.decode(parts[3]).length == HASH_BITS / Byte.SIZE;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public static boolean matches(String password, String stored) {
+        if (password == null || stored == null) {
+            return false;
+        }
+        if (!isHash(stored)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            int iterations = Integer.parseInt(parts[1]);
+            if (iterations < 1 || iterations > MAX_ITERATIONS) {
+                return false;
+            }
+            Base64.Decoder decoder = Base64.getDecoder();
+            byte[] expected = decoder.decode(parts[3]);
+            return MessageDigest.isEqual(expected,
+                    derive(password, decoder.decode(parts[2]), iterations));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public static boolean needsRehash(String stored) {
+        return !isHash(stored) || !stored.startsWith(PREFIX + ITERATIONS + "$");
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Can't derive " + ALGORITHM + " hash", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
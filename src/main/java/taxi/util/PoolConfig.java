@@ -0,0 +1,100 @@
+package taxi.util;
+
+public class PoolConfig {
+    private int minSize = 2;
+    private int maxSize = 10;
+    private long borrowTimeoutMillis = 5_000;
+    private long idleTimeoutMillis = 600_000;
+    private long maxLifetimeMillis = 1_800_000;
+    private long validationIntervalMillis = 500;
+    private int validationTimeoutSeconds = 2;
+    private long housekeepingPeriodMillis = 30_000;
+    private int statementCacheSize = 64;
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public void setMinSize(int minSize) {
+        this.minSize = minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public long getBorrowTimeoutMillis() {
+        return borrowTimeoutMillis;
+    }
+
+    public void setBorrowTimeoutMillis(long borrowTimeoutMillis) {
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public long getMaxLifetimeMillis() {
+        return maxLifetimeMillis;
+    }
+
+    public void setMaxLifetimeMillis(long maxLifetimeMillis) {
+        this.maxLifetimeMillis = maxLifetimeMillis;
+    }
+
+    public long getValidationIntervalMillis() {
+        return validationIntervalMillis;
+    }
+
+    public void setValidationIntervalMillis(long validationIntervalMillis) {
+        this.validationIntervalMillis = validationIntervalMillis;
+    }
+
+    public int getValidationTimeoutSeconds() {
+        return validationTimeoutSeconds;
+    }
+
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    public long getHousekeepingPeriodMillis() {
+        return housekeepingPeriodMillis;
+    }
+
+    public void setHousekeepingPeriodMillis(long housekeepingPeriodMillis) {
+        this.housekeepingPeriodMillis = housekeepingPeriodMillis;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public void setStatementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolConfig{"
+                + "minSize=" + minSize
+                + ", maxSize=" + maxSize
+                + ", borrowTimeoutMillis=" + borrowTimeoutMillis
+                + ", idleTimeoutMillis=" + idleTimeoutMillis
+                + ", maxLifetimeMillis=" + maxLifetimeMillis
+                + ", validationIntervalMillis=" + validationIntervalMillis
+                + ", validationTimeoutSeconds=" + validationTimeoutSeconds
+                + ", housekeepingPeriodMillis=" + housekeepingPeriodMillis
+                + ", statementCacheSize=" + statementCacheSize
+                + '}';
+    }
+}
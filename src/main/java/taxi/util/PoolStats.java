@@ -0,0 +1,76 @@
+package taxi.util;
+
+public class PoolStats {
+    private final int active;
+    private final int idle;
+    private final int waiters;
+    private final long borrowCount;
+    private final long timeoutCount;
+    private final LatencyHistogram waitTime;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+
+    public PoolStats(int active, int idle, int waiters, long borrowCount,
+                     long timeoutCount, LatencyHistogram waitTime,
+                     long statementCacheHits, long statementCacheMisses) {
+        this.active = active;
+        this.idle = idle;
+        this.waiters = waiters;
+        this.borrowCount = borrowCount;
+        this.timeoutCount = timeoutCount;
+        this.waitTime = waitTime;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getTotal() {
+        return active + idle;
+    }
+
+    public int getWaiters() {
+        return waiters;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    public LatencyHistogram getWaitTime() {
+        return waitTime;
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats{"
+                + "active=" + active
+                + ", idle=" + idle
+                + ", waiters=" + waiters
+                + ", borrowCount=" + borrowCount
+                + ", timeoutCount=" + timeoutCount
+                + ", waitCount=" + waitTime.getCount()
+                + ", waitSumMicros=" + waitTime.getSumMicros()
+                + ", statementCacheHits=" + statementCacheHits
+                + ", statementCacheMisses=" + statementCacheMisses
+                + '}';
+    }
+}
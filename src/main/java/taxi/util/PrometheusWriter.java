@@ -0,0 +1,138 @@
+package taxi.util;
+
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.TreeMap;
+import taxi.lib.EventBus;
+
+/**
+ * Renders the collected metrics in the Prometheus text exposition format.
+ */
+public class PrometheusWriter {
+    private static final double MICROS_IN_SECOND = 1_000_000.0;
+    private final PrintWriter writer;
+
+    public PrometheusWriter(PrintWriter writer) {
+        this.writer = writer;
+    }
+
+    public void writeAll() {
+        writeOperations("taxi_http_request", "pattern", MetricsRegistry.getHttpMetrics());
+        writeOperations("taxi_dao_call", "method", MetricsRegistry.getDaoMetrics());
+        writePools(ConnectionUtil.getAllPoolStats());
+        writeCaches(EntityCache.getRegistered());
+        writeBulkheads(Bulkhead.getRegistered());
+        writeEvents();
+        writer.flush();
+    }
+
+    private void writeOperations(String prefix, String label,
+                                 Map<String, OperationMetrics> operations) {
+        Map<String, OperationMetrics> sorted = new TreeMap<>(operations);
+        writer.println("# TYPE " + prefix + "s_total counter");
+        sorted.forEach((key, metrics) -> writer.println(prefix + "s_total"
+                + labels(label, key) + " " + metrics.getCount()));
+        writer.println("# TYPE " + prefix + "_errors_total counter");
+        sorted.forEach((key, metrics) -> writer.println(prefix + "_errors_total"
+                + labels(label, key) + " " + metrics.getErrors()));
+        writer.println("# TYPE " + prefix + "_duration_seconds histogram");
+        sorted.forEach((key, metrics) -> writeHistogram(prefix + "_duration_seconds",
+                label + "=\"" + escape(key) + "\",", metrics.getLatency()));
+    }
+
+    private void writePools(Map<String, PoolStats> pools) {
+        Map<String, PoolStats> sorted = new TreeMap<>(pools);
+        writer.println("# TYPE taxi_db_pool_connections gauge");
+        sorted.forEach((name, stats) -> {
+            writer.println("taxi_db_pool_connections{pool=\"" + escape(name)
+                    + "\",state=\"active\"} " + stats.getActive());
+            writer.println("taxi_db_pool_connections{pool=\"" + escape(name)
+                    + "\",state=\"idle\"} " + stats.getIdle());
+        });
+        writer.println("# TYPE taxi_db_pool_waiters gauge");
+        sorted.forEach((name, stats) -> writer.println("taxi_db_pool_waiters"
+                + labels("pool", name) + " " + stats.getWaiters()));
+        writer.println("# TYPE taxi_db_pool_timeouts_total counter");
+        sorted.forEach((name, stats) -> writer.println("taxi_db_pool_timeouts_total"
+                + labels("pool", name) + " " + stats.getTimeoutCount()));
+        writer.println("# TYPE taxi_db_statement_cache_requests_total counter");
+        sorted.forEach((name, stats) -> {
+            writer.println("taxi_db_statement_cache_requests_total{pool=\"" + escape(name)
+                    + "\",result=\"hit\"} " + stats.getStatementCacheHits());
+            writer.println("taxi_db_statement_cache_requests_total{pool=\"" + escape(name)
+                    + "\",result=\"miss\"} " + stats.getStatementCacheMisses());
+        });
+        writer.println("# TYPE taxi_db_pool_wait_seconds histogram");
+        sorted.forEach((name, stats) -> writeHistogram("taxi_db_pool_wait_seconds",
+                "pool=\"" + escape(name) + "\",", stats.getWaitTime()));
+    }
+
+    private void writeCaches(Map<String, EntityCache<?, ?>> caches) {
+        Map<String, EntityCache<?, ?>> sorted = new TreeMap<>(caches);
+        writer.println("# TYPE taxi_cache_requests_total counter");
+        sorted.forEach((name, cache) -> {
+            writer.println("taxi_cache_requests_total{cache=\"" + escape(name)
+                    + "\",result=\"hit\"} " + cache.getHits());
+            writer.println("taxi_cache_requests_total{cache=\"" + escape(name)
+                    + "\",result=\"miss\"} " + cache.getMisses());
+        });
+        writer.println("# TYPE taxi_cache_evictions_total counter");
+        sorted.forEach((name, cache) -> writer.println("taxi_cache_evictions_total"
+                + labels("cache", name) + " " + cache.getEvictions()));
+        writer.println("# TYPE taxi_cache_size gauge");
+        sorted.forEach((name, cache) -> writer.println("taxi_cache_size"
+                + labels("cache", name) + " " + cache.size()));
+    }
+
+    private void writeBulkheads(Map<String, Bulkhead> bulkheads) {
+        Map<String, Bulkhead> sorted = new TreeMap<>(bulkheads);
+        writer.println("# TYPE taxi_bulkhead_tasks gauge");
+        sorted.forEach((name, bulkhead) -> {
+            writer.println("taxi_bulkhead_tasks{bulkhead=\"" + escape(name)
+                    + "\",state=\"active\"} " + bulkhead.getActive());
+            writer.println("taxi_bulkhead_tasks{bulkhead=\"" + escape(name)
+                    + "\",state=\"queued\"} " + bulkhead.getQueued());
+        });
+        writer.println("# TYPE taxi_bulkhead_rejected_total counter");
+        sorted.forEach((name, bulkhead) -> writer.println("taxi_bulkhead_rejected_total"
+                + labels("bulkhead", name) + " " + bulkhead.getRejected()));
+        writer.println("# TYPE taxi_bulkhead_timeouts_total counter");
+        sorted.forEach((name, bulkhead) -> writer.println("taxi_bulkhead_timeouts_total"
+                + labels("bulkhead", name) + " " + bulkhead.getTimedOut()));
+    }
+
+    private void writeEvents() {
+        writer.println("# TYPE taxi_change_events_total counter");
+        writer.println("taxi_change_events_total{state=\"published\"} "
+                + EventBus.getPublished());
+        writer.println("taxi_change_events_total{state=\"dropped\"} " + EventBus.getDropped());
+        writer.println("# TYPE taxi_change_events_queued gauge");
+        writer.println("taxi_change_events_queued " + EventBus.getQueued());
+    }
+
+    private void writeHistogram(String name, String labelPrefix, LatencyHistogram histogram) {
+        long[] bounds = histogram.getBoundsMicros();
+        long[] counts = histogram.getBucketCounts();
+        long cumulative = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            cumulative += counts[i];
+            writer.println(name + "_bucket{" + labelPrefix + "le=\""
+                    + bounds[i] / MICROS_IN_SECOND + "\"} " + cumulative);
+        }
+        cumulative += counts[bounds.length];
+        writer.println(name + "_bucket{" + labelPrefix + "le=\"+Inf\"} " + cumulative);
+        String labels = labelPrefix.isEmpty() ? ""
+                : "{" + labelPrefix.substring(0, labelPrefix.length() - 1) + "}";
+        writer.println(name + "_sum" + labels + " "
+                + histogram.getSumMicros() / MICROS_IN_SECOND);
+        writer.println(name + "_count" + labels + " " + cumulative);
+    }
+
+    private String labels(String label, String value) {
+        return "{" + label + "=\"" + escape(value) + "\"}";
+    }
+
+    private String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,164 @@
+package taxi.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Sends {@link #getConnection()} to the primary and {@link #getReadOnlyConnection()}
+ * to one of the replicas, picked round robin or by the fewest borrowed connections.
+ * Inside a request scope opened with {@link #beginRequest(boolean)}, reads go to the
+ * primary once the request has used it, so a request sees its own writes; a request
+ * can also start pinned to the primary. The scope belongs to the thread that opened
+ * it; work the request hands to another thread has to be wrapped with
+ * {@link #inCurrentScope(Runnable)}. A replica that can't hand out a connection is
+ * skipped in favour of the primary.
+ */
+public class RoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(RoutingDataSource.class);
+    private static final ThreadLocal<RequestScope> requestScope = new ThreadLocal<>();
+    private final ConnectionPool primary;
+    private final List<ConnectionPool> replicas;
+    private final Strategy strategy;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public RoutingDataSource(ConnectionPool primary, List<ConnectionPool> replicas,
+                             Strategy strategy) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.strategy = strategy;
+    }
+
+    public static void beginRequest(boolean pinnedToPrimary) {
+        requestScope.set(new RequestScope(pinnedToPrimary));
+    }
+
+    public static void endRequest() {
+        requestScope.remove();
+    }
+
+    /**
+     * Returns a task that runs in the request scope of the calling thread, so its
+     * reads are routed like the request's and its writes pin the rest of the request
+     * to the primary. Returns the task itself outside a request scope.
+     */
+    public static Runnable inCurrentScope(Runnable task) {
+        RequestScope scope = requestScope.get();
+        if (scope == null) {
+            return task;
+        }
+        return () -> {
+            RequestScope previous = requestScope.get();
+            requestScope.set(scope);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    requestScope.remove();
+                } else {
+                    requestScope.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns whether the current request has used the primary, so the client's
+     * next request should read from it as well.
+     */
+    public static boolean isPrimaryUsed() {
+        RequestScope scope = requestScope.get();
+        return scope != null && scope.primaryUsed;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        RequestScope scope = requestScope.get();
+        if (scope != null) {
+            scope.primaryUsed = true;
+        }
+        return primary.getConnection();
+    }
+
+    public Connection getReadOnlyConnection() throws SQLException {
+        RequestScope scope = requestScope.get();
+        if (replicas.isEmpty()
+                || scope != null && (scope.pinnedToPrimary || scope.primaryUsed)) {
+            return primary.getConnection();
+        }
+        ConnectionPool replica = chooseReplica();
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            logger.warn("Replica {} is unavailable, reading from the primary",
+                    replicas.indexOf(replica) + 1, e);
+            return primary.getConnection();
+        }
+    }
+
+    public boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    /**
+     * Returns the pool statistics by pool name: {@code primary}, {@code replica1}, ...
+     */
+    public Map<String, PoolStats> getPoolStats() {
+        Map<String, PoolStats> stats = new LinkedHashMap<>();
+        stats.put("primary", primary.getStats());
+        for (int i = 0; i < replicas.size(); i++) {
+            stats.put("replica" + (i + 1), replicas.get(i).getStats());
+        }
+        return stats;
+    }
+
+    public PoolStats getPrimaryStats() {
+        return primary.getStats();
+    }
+
+    @Override
+    public void close() {
+        primary.close();
+        replicas.forEach(ConnectionPool::close);
+    }
+
+    /**
+     * Picks the next replica round robin; for least busy, ties go to the replica
+     * round robin would pick first.
+     */
+    private ConnectionPool chooseReplica() {
+        int first = Math.floorMod(next.getAndIncrement(), replicas.size());
+        ConnectionPool chosen = replicas.get(first);
+        if (strategy == Strategy.LEAST_BUSY) {
+            int fewest = chosen.getActive();
+            for (int i = 1; i < replicas.size() && fewest > 0; i++) {
+                ConnectionPool replica = replicas.get((first + i) % replicas.size());
+                int active = replica.getActive();
+                if (active < fewest) {
+                    chosen = replica;
+                    fewest = active;
+                }
+            }
+        }
+        return chosen;
+    }
+
+    public enum Strategy {
+        ROUND_ROBIN,
+        LEAST_BUSY
+    }
+
+    private static class RequestScope {
+        private final boolean pinnedToPrimary;
+        private volatile boolean primaryUsed;
+
+        private RequestScope(boolean pinnedToPrimary) {
+            this.pinnedToPrimary = pinnedToPrimary;
+        }
+    }
+}
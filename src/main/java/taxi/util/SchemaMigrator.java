@@ -0,0 +1,183 @@
+package taxi.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.exception.DataProcessingException;
+
+/**
+ * Brings the schema created by init_db.sql up to date. The scripts are listed in
+ * order in {@value #INDEX_LOCATION} and named {@code V<version>__<description>.sql};
+ * every script with a version above the highest one recorded in {@code schema_version}
+ * runs and is recorded there. MySQL commits DDL implicitly, so a script that fails
+ * half way has to be finished by hand before the next start.
+ *
+ * <p>Nodes starting together take turns through the single row of {@code schema_lock}:
+ * a node inserts it before reading the version and deletes it when done, and the others
+ * wait up to {@code taxi.db.migrate.lockWaitMillis} for the row to go. A node that dies
+ * while migrating leaves the row behind; delete it once the schema has been checked.
+ */
+public class SchemaMigrator {
+    public static final String INDEX_LOCATION = "db/migration/migrations.txt";
+    private static final String SCRIPT_DIRECTORY = "db/migration/";
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final long LOCK_WAIT_MILLIS =
+            AppConfig.getLong("taxi.db.migrate.lockWaitMillis", 60_000);
+    private static final long LOCK_POLL_MILLIS = 500;
+    private static final Logger logger = LogManager.getLogger(SchemaMigrator.class);
+
+    private SchemaMigrator() {
+    }
+
+    /**
+     * Migrates the application database unless {@code taxi.db.migrate} is false.
+     */
+    public static void migrate() {
+        if (!AppConfig.getBoolean("taxi.db.migrate", true)) {
+            logger.info("Schema migration is disabled");
+            return;
+        }
+        try (Connection connection = ConnectionUtil.getConnection()) {
+            migrate(connection, UnaryOperator.identity());
+        } catch (SQLException e) {
+            throw new DataProcessingException("Can't migrate schema", e);
+        }
+    }
+
+    /**
+     * Runs the pending scripts on the given connection, which must be in auto-commit
+     * mode so the lock row is seen by other nodes.
+     *
+     * @param dialect rewrites every script before it runs, for databases that don't
+     *                understand parts of the MySQL syntax
+     * @return the number of scripts that ran
+     */
+    public static int migrate(Connection connection, UnaryOperator<String> dialect) {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS schema_version ("
+                    + "version INT NOT NULL PRIMARY KEY, "
+                    + "script VARCHAR(255) NOT NULL, "
+                    + "installed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+            statement.execute("CREATE TABLE IF NOT EXISTS schema_lock ("
+                    + "id INT NOT NULL PRIMARY KEY, "
+                    + "locked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+            lock(statement);
+            try {
+                return migrate(connection, statement, dialect);
+            } finally {
+                statement.execute("DELETE FROM schema_lock");
+            }
+        } catch (SQLException | IOException e) {
+            throw new DataProcessingException("Can't migrate schema", e);
+        }
+    }
+
+    private static int migrate(Connection connection, Statement statement,
+            UnaryOperator<String> dialect) throws SQLException, IOException {
+        int current = currentVersion(statement);
+        int applied = 0;
+        for (String script : readLines(INDEX_LOCATION)) {
+            Matcher matcher = SCRIPT_NAME.matcher(script);
+            if (!matcher.matches()) {
+                throw new IOException("Migration script name " + script
+                        + " doesn't match " + SCRIPT_NAME);
+            }
+            int version = Integer.parseInt(matcher.group(1));
+            if (version <= current) {
+                continue;
+            }
+            logger.info("Migrating schema to version {} with {}", version, script);
+            for (String sql : SqlScripts.split(
+                    dialect.apply(readResource(SCRIPT_DIRECTORY + script)))) {
+                statement.execute(sql);
+            }
+            record(connection, version, script);
+            current = version;
+            applied++;
+        }
+        logger.info("Schema is at version {}, {} scripts applied", current, applied);
+        return applied;
+    }
+
+    private static void lock(Statement statement) throws SQLException {
+        long deadline = System.currentTimeMillis() + LOCK_WAIT_MILLIS;
+        while (true) {
+            try {
+                statement.executeUpdate("INSERT INTO schema_lock (id) VALUES (1)");
+                return;
+            } catch (SQLIntegrityConstraintViolationException e) {
+                if (System.currentTimeMillis() >= deadline) {
+                    throw new SQLException("Schema migration is still locked after "
+                            + LOCK_WAIT_MILLIS + " ms; if no node is migrating, delete the"
+                            + " row from schema_lock", e);
+                }
+                logger.info("Waiting for another node to finish migrating the schema");
+            }
+            try {
+                Thread.sleep(LOCK_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for the schema lock", e);
+            }
+        }
+    }
+
+    private static int currentVersion(Statement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery(
+                "SELECT MAX(version) FROM schema_version")) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    private static void record(Connection connection, int version, String script)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO schema_version (version, script) VALUES (?, ?)")) {
+            statement.setInt(1, version);
+            statement.setString(2, script);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Reads a class path resource, leaving out blank lines and {@code --} comments.
+     */
+    private static List<String> readLines(String resource) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new StringReader(
+                readResource(resource)))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.trim().startsWith("--")) {
+                    lines.add(line);
+                }
+            }
+        }
+        return lines;
+    }
+
+    private static String readResource(String resource) throws IOException {
+        try (InputStream in = SchemaMigrator.class.getClassLoader()
+                .getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException(resource + " is not on the class path");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package taxi.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits SQL scripts into statements at the semicolons that end them. Semicolons in
+ * quoted strings and identifiers ({@code '}, {@code "} and backticks, with doubled or
+ * backslash escaped quotes) and in {@code --}, {@code #} and block comments don't
+ * count; comments are dropped.
+ */
+public final class SqlScripts {
+    private SqlScripts() {
+    }
+
+    public static List<String> split(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder statement = new StringBuilder();
+        int i = 0;
+        while (i < script.length()) {
+            char c = script.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                int end = quoteEnd(script, i);
+                statement.append(script, i, end);
+                i = end;
+            } else if (c == '#' || script.startsWith("--", i)) {
+                int end = script.indexOf('\n', i);
+                i = end < 0 ? script.length() : end;
+            } else if (script.startsWith("/*", i)) {
+                int end = script.indexOf("*/", i + 2);
+                i = end < 0 ? script.length() : end + 2;
+                statement.append(' ');
+            } else if (c == ';') {
+                add(statements, statement);
+                i++;
+            } else {
+                statement.append(c);
+                i++;
+            }
+        }
+        add(statements, statement);
+        return statements;
+    }
+
+    /**
+     * Returns the index after the quote that closes the one at {@code start}, or the
+     * script length if it is never closed.
+     */
+    private static int quoteEnd(String script, int start) {
+        char quote = script.charAt(start);
+        int i = start + 1;
+        while (i < script.length()) {
+            char c = script.charAt(i);
+            if (c == '\\' && quote != '`') {
+                i += 2;
+            } else if (c == quote && i + 1 < script.length() && script.charAt(i + 1) == quote) {
+                i += 2;
+            } else if (c == quote) {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return script.length();
+    }
+
+    private static void add(List<String> statements, StringBuilder statement) {
+        String sql = statement.toString().trim();
+        if (!sql.isEmpty()) {
+            statements.add(sql);
+        }
+        statement.setLength(0);
+    }
+}
@@ -0,0 +1,247 @@
+package taxi.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * LRU cache of the prepared statements of one physical connection. Statements are
+ * handed out as proxies whose {@code close()} clears the parameters and keeps the
+ * physical statement for the next {@code prepareStatement} call with the same SQL.
+ * Statements the borrower leaves open are released when the connection goes back to
+ * the pool. Only used by the thread that borrowed the connection, so it is not
+ * synchronized.
+ */
+class StatementCache {
+    private static final Logger logger = LogManager.getLogger(StatementCache.class);
+    private final Connection connection;
+    private final int maxSize;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final Map<StatementKey, CachedStatement> statements;
+    private final List<StatementHandle> openHandles = new ArrayList<>();
+
+    StatementCache(Connection connection, int maxSize, LongAdder hits, LongAdder misses) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<StatementKey, CachedStatement> eldest) {
+                if (size() <= StatementCache.this.maxSize) {
+                    return false;
+                }
+                eldest.getValue().evicted = true;
+                if (!eldest.getValue().inUse) {
+                    eldest.getValue().destroy();
+                }
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Prepares a statement for one of the {@code prepareStatement(String)},
+     * {@code (String, int)} and {@code (String, int, int)} overloads, reusing a cached
+     * one if it is not checked out already. Other overloads are not cached.
+     */
+    PreparedStatement prepare(Connection owner, Method method, Object[] args)
+            throws Throwable {
+        StatementKey key = StatementKey.of(args);
+        if (key == null) {
+            return (PreparedStatement) invoke(connection, method, args);
+        }
+        CachedStatement cached = statements.get(key);
+        if (cached != null && !cached.inUse) {
+            hits.increment();
+        } else {
+            misses.increment();
+            PreparedStatement physical = (PreparedStatement) invoke(connection, method, args);
+            if (cached != null) {
+                return physical;
+            }
+            cached = new CachedStatement(physical);
+            statements.put(key, cached);
+        }
+        cached.inUse = true;
+        StatementHandle handle = new StatementHandle(cached, owner);
+        openHandles.add(handle);
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class}, handle);
+    }
+
+    /**
+     * Closes the statements still open, as when the connection is returned to the pool.
+     */
+    void releaseAll() {
+        for (StatementHandle handle : new ArrayList<>(openHandles)) {
+            handle.close();
+        }
+    }
+
+    void close() {
+        statements.values().forEach(CachedStatement::destroy);
+        statements.clear();
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static class StatementKey {
+        private final String sql;
+        private final int[] options;
+
+        private StatementKey(String sql, int... options) {
+            this.sql = sql;
+            this.options = options;
+        }
+
+        private static StatementKey of(Object[] args) {
+            if (args.length == 1) {
+                return new StatementKey((String) args[0]);
+            }
+            if (args.length == 2 && args[1] instanceof Integer) {
+                return new StatementKey((String) args[0], (Integer) args[1]);
+            }
+            if (args.length == 3) {
+                return new StatementKey((String) args[0], (Integer) args[1],
+                        (Integer) args[2]);
+            }
+            return null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof StatementKey)) {
+                return false;
+            }
+            StatementKey that = (StatementKey) o;
+            return sql.equals(that.sql) && Arrays.equals(options, that.options);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sql.hashCode() + Arrays.hashCode(options);
+        }
+    }
+
+    private static class CachedStatement {
+        private final PreparedStatement statement;
+        private final int fetchSize;
+        private boolean inUse;
+        private boolean evicted;
+
+        private CachedStatement(PreparedStatement statement) throws SQLException {
+            this.statement = statement;
+            fetchSize = statement.getFetchSize();
+        }
+
+        private boolean reset() {
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.clearWarnings();
+                if (statement.getFetchSize() != fetchSize) {
+                    statement.setFetchSize(fetchSize);
+                }
+                return true;
+            } catch (SQLException e) {
+                logger.debug("Can't reset cached statement", e);
+                return false;
+            }
+        }
+
+        private void destroy() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                logger.debug("Can't close cached statement", e);
+            }
+        }
+    }
+
+    private class StatementHandle implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection owner;
+        private final List<ResultSet> resultSets = new ArrayList<>(1);
+        private boolean closed;
+
+        private StatementHandle(CachedStatement cached, Connection owner) {
+            this.cached = cached;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    close();
+                    return null;
+                case "isClosed":
+                    return closed || cached.statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached" + cached.statement;
+                default:
+                    if (closed) {
+                        throw new SQLException("Statement is closed");
+                    }
+                    Object result = StatementCache.invoke(cached.statement, method, args);
+                    if (result instanceof ResultSet) {
+                        resultSets.add((ResultSet) result);
+                    }
+                    return result;
+            }
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            openHandles.remove(this);
+            for (ResultSet resultSet : resultSets) {
+                try {
+                    resultSet.close();
+                } catch (SQLException e) {
+                    logger.debug("Can't close result set of cached statement", e);
+                }
+            }
+            cached.inUse = false;
+            if (cached.evicted) {
+                cached.destroy();
+            } else if (!cached.reset()) {
+                statements.values().remove(cached);
+                cached.destroy();
+            }
+        }
+    }
+}
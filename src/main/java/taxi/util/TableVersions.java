@@ -0,0 +1,68 @@
+package taxi.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-table change counters for HTTP validators and the page cache. DAO write methods
+ * call {@link #bump(String)}, which takes effect once the surrounding transaction has
+ * committed, so a version is never paired with data from before it. Counters only
+ * see writes made through this JVM; other nodes' changes show up when their page
+ * cache entries expire.
+ */
+public final class TableVersions {
+    public static final String CARS = "cars";
+    public static final String DRIVERS = "drivers";
+    public static final String MANUFACTURERS = "manufacturers";
+    private static final long STARTED_AT = System.currentTimeMillis();
+    private static final Map<String, Version> versions = new ConcurrentHashMap<>();
+
+    private TableVersions() {
+    }
+
+    public static void bump(String table) {
+        TransactionManager.afterCommit(() -> versions.computeIfAbsent(table,
+                key -> new Version()).increment());
+    }
+
+    /**
+     * Returns a number that grows with every committed change to any of the tables.
+     */
+    public static long getVersion(String... tables) {
+        long sum = 0;
+        for (String table : tables) {
+            Version version = versions.get(table);
+            sum += version == null ? 0 : version.count;
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the time of the last change to any of the tables, or the start of the
+     * JVM if none has changed since.
+     */
+    public static long getLastModified(String... tables) {
+        long lastModified = STARTED_AT;
+        for (String table : tables) {
+            Version version = versions.get(table);
+            if (version != null) {
+                lastModified = Math.max(lastModified, version.modifiedAt);
+            }
+        }
+        return lastModified;
+    }
+
+    public static long getStartedAt() {
+        return STARTED_AT;
+    }
+
+    private static class Version {
+        private volatile long count;
+        private volatile long modifiedAt;
+
+        private synchronized void increment() {
+            modifiedAt = System.currentTimeMillis();
+            count++;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package taxi.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import taxi.exception.DataProcessingException;
+
+/**
+ * Binds one connection to the current thread for the duration of a unit of work.
+ * While a transaction is active {@link ConnectionUtil#getConnection()} returns the
+ * bound connection, so every DAO call made by the work shares it and the work
+ * is committed once. Nested calls join the outer transaction. Actions registered with
+ * {@link #afterCommit(Runnable)} run once the outer transaction has committed and are
+ * dropped on rollback.
+ */
+public class TransactionManager {
+    private static final Logger logger = LogManager.getLogger(TransactionManager.class);
+    private static final ThreadLocal<Connection> boundConnection = new ThreadLocal<>();
+    private static final ThreadLocal<List<Runnable>> commitActions = new ThreadLocal<>();
+
+    public static <T> T inTransaction(Supplier<T> work) {
+        if (boundConnection.get() != null) {
+            return work.get();
+        }
+        Connection connection = ConnectionUtil.getConnection();
+        try {
+            connection.setAutoCommit(false);
+            boundConnection.set(nonClosing(connection));
+            commitActions.set(new ArrayList<>());
+            T result = work.get();
+            connection.commit();
+            runCommitActions(commitActions.get());
+            return result;
+        } catch (SQLException e) {
+            rollback(connection);
+            throw new DataProcessingException("Can't complete transaction", e);
+        } catch (RuntimeException | Error e) {
+            rollback(connection);
+            throw e;
+        } finally {
+            boundConnection.remove();
+            commitActions.remove();
+            close(connection);
+        }
+    }
+
+    public static void inTransaction(Runnable work) {
+        inTransaction(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the action after the current transaction commits, or right away when
+     * there is none.
+     */
+    public static void afterCommit(Runnable action) {
+        List<Runnable> actions = commitActions.get();
+        if (actions == null) {
+            action.run();
+        } else {
+            actions.add(action);
+        }
+    }
+
+    public static boolean isActive() {
+        return boundConnection.get() != null;
+    }
+
+    static Connection currentConnection() {
+        return boundConnection.get();
+    }
+
+    private static Connection nonClosing(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static void runCommitActions(List<Runnable> actions) {
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                logger.error("After commit action failed", e);
+            }
+        }
+    }
+
+    private static void rollback(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            logger.error("Can't rollback transaction", e);
+        }
+    }
+
+    private static void close(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.error("Can't release transaction connection", e);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+-- Composite indexes for the soft-delete aware access paths:
+-- active cars of a manufacturer in id order, active drivers by login,
+-- and the cars of a driver.
+CREATE INDEX `cars_manufacturer_active` ON `cars` (`manufacturer_id`, `is_deleted`, `id`);
+CREATE INDEX `drivers_login_active` ON `drivers` (`login`, `is_deleted`);
+CREATE INDEX `cars_drivers_driver_car` ON `cars_drivers` (`driver_id`, `car_id`);
@@ -0,0 +1,5 @@
+-- Covered by the primary key (car_id, driver_id) and by the V1 indexes,
+-- which now back the foreign keys as well.
+ALTER TABLE `cars_drivers` DROP INDEX `car_id`;
+ALTER TABLE `cars_drivers` DROP INDEX `driver_id`;
+ALTER TABLE `cars` DROP INDEX `FK_manufacturer_id`;
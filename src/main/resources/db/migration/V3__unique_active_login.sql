@@ -0,0 +1,6 @@
+-- Logins only have to be unique among drivers that are not deleted, so a
+-- deleted driver's login can be taken again.
+ALTER TABLE `drivers` ADD COLUMN `active_login` VARCHAR(255)
+    GENERATED ALWAYS AS (CASE WHEN `is_deleted` THEN NULL ELSE `login` END);
+CREATE UNIQUE INDEX `drivers_active_login` ON `drivers` (`active_login`);
+ALTER TABLE `drivers` DROP INDEX `login_UNIQUE`;
@@ -0,0 +1,10 @@
+-- Local outbox of committed entity changes, written by the event bus when
+-- taxi.events.outbox.enabled is set, so listeners can replay what they missed.
+CREATE TABLE `entity_changes` (
+    `id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+    `entity` VARCHAR(32) NOT NULL,
+    `entity_id` BIGINT UNSIGNED NOT NULL,
+    `operation` VARCHAR(16) NOT NULL,
+    `changed_at` BIGINT NOT NULL,
+    PRIMARY KEY (`id`)
+);
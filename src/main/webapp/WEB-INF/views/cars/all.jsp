@@ -1,5 +1,5 @@
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
-<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ page contentType="text/html;charset=UTF-8" language="java" session="false" %>
 <html>
 <head>
     <link href="https://cdn.jsdelivr.net/npm/bootstrap@5.0.2/dist/css/bootstrap.min.css"
@@ -16,7 +16,28 @@
     <div class="d-grid gap-2 d-md-flex justify-content-md-end">
         <a href="${pageContext.request.contextPath}/cars/add" type="button"
            class="btn btn-outline-primary">Create</a>
+        <a href="${pageContext.request.contextPath}/cars/import" type="button"
+           class="btn btn-outline-secondary">Import CSV</a>
+        <a href="${pageContext.request.contextPath}/cars/export" type="button"
+           class="btn btn-outline-secondary">Export CSV</a>
+        <a href="${pageContext.request.contextPath}/cars/export?format=ndjson" type="button"
+           class="btn btn-outline-secondary">Export NDJSON</a>
     </div>
+    <c:if test="${not empty page}">
+        <form method="get" action="${pageContext.request.contextPath}/cars" class="row g-2 my-2">
+            <div class="col-md-3">
+                <input type="text" class="form-control" name="manufacturer_id"
+                       placeholder="Manufacturer id" value="<c:out value="${param.manufacturer_id}" />">
+            </div>
+            <div class="col-md-3">
+                <input type="text" class="form-control" name="model"
+                       placeholder="Model starts with" value="<c:out value="${param.model}" />">
+            </div>
+            <div class="col-md-2">
+                <button type="submit" class="btn btn-outline-secondary">Filter</button>
+            </div>
+        </form>
+    </c:if>
     <table class="table table-striped">
         <thead>
         <tr>
@@ -37,7 +58,7 @@
                     <c:out value="${car.model}" />
                 </td>
                 <td>
-                    <c:out value="${car.manufacturer.name}" />, <c:out value="${car.manufacturer.country}" />
+                    <c:out value="${car.manufacturerName}" />, <c:out value="${car.manufacturerCountry}" />
                 </td>
                 <td>
                     <table class="table table-striped mb-0">
@@ -87,6 +108,7 @@
         </c:forEach>
         </tbody>
     </table>
+    <%@ include file="../toolbar/pagination.jsp"%>
 </div>
 </body>
 </html>
@@ -1,5 +1,5 @@
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
-<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ page contentType="text/html;charset=UTF-8" language="java" session="false" %>
 <html>
 <head>
     <link href="https://cdn.jsdelivr.net/npm/bootstrap@5.0.2/dist/css/bootstrap.min.css"
@@ -16,7 +16,18 @@
     <div class="d-grid gap-2 d-md-flex justify-content-md-end">
         <a href="${pageContext.request.contextPath}/drivers/add" type="button"
            class="btn btn-outline-primary">Create</a>
+        <a href="${pageContext.request.contextPath}/drivers/import" type="button"
+           class="btn btn-outline-secondary">Import CSV</a>
     </div>
+    <form method="get" action="${pageContext.request.contextPath}/drivers" class="row g-2 my-2">
+        <div class="col-md-4">
+            <input type="text" class="form-control" name="name"
+                   placeholder="Name starts with" value="<c:out value="${param.name}" />">
+        </div>
+        <div class="col-md-2">
+            <button type="submit" class="btn btn-outline-secondary">Filter</button>
+        </div>
+    </form>
     <table class="table table-striped">
         <thead>
         <tr>
@@ -49,6 +60,7 @@
         </c:forEach>
         </tbody>
     </table>
+    <%@ include file="../toolbar/pagination.jsp"%>
 </div>
 </body>
 </html>
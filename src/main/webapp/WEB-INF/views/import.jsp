@@ -0,0 +1,47 @@
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@ page contentType="text/html;charset=UTF-8" language="java" session="false" %>
+<html>
+<head>
+    <link href="https://cdn.jsdelivr.net/npm/bootstrap@5.0.2/dist/css/bootstrap.min.css"
+          rel="stylesheet"
+          integrity="sha384-EVSTQN3/azprG1Anm3QDgpJLIm9Nao0Yz1ztcQTwFspd3yD65VohhpuuCOmLASjC"
+          crossorigin="anonymous">
+    <title>Taxi | Import ${entity}</title>
+</head>
+
+<body>
+<%@ include file="toolbar/header.jsp"%>
+<div class="container">
+    <h3>Import ${entity}</h3>
+    <p>CSV file with the columns <code>${columns}</code>, optionally starting with this header.</p>
+    <c:if test="${not empty created}">
+        <div class="alert alert-success">Imported ${created} ${entity}.</div>
+    </c:if>
+    <c:if test="${not empty errors}">
+        <div class="alert alert-danger">
+            Nothing was imported:
+            <ul class="mb-0">
+                <c:forEach items="${errors}" var="error">
+                    <li><c:out value="${error}" /></li>
+                </c:forEach>
+            </ul>
+        </div>
+    </c:if>
+    <form method="post" enctype="multipart/form-data"
+          action="${pageContext.request.contextPath}/${entity}/import">
+        <div class="mb-3">
+            <input type="file" class="form-control" id="file" name="file" accept=".csv,text/csv">
+        </div>
+        <c:if test="${entity == 'drivers'}">
+            <div class="form-check mb-3">
+                <input type="checkbox" class="form-check-input" id="hashed" name="hashed">
+                <label class="form-check-label" for="hashed">Passwords are PBKDF2 hashes</label>
+            </div>
+        </c:if>
+        <div class="d-md-flex justify-content-md-end">
+            <button type="submit" class="btn btn-outline-primary">Import</button>
+        </div>
+    </form>
+</div>
+</body>
+</html>
@@ -1,4 +1,4 @@
-<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ page contentType="text/html;charset=UTF-8" language="java" session="false" %>
 <nav class="row">
     <div class="offset-md-1 col-md-9">
         <ul class="nav justify-content-center">
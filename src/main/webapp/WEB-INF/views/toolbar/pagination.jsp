@@ -0,0 +1,32 @@
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@ page contentType="text/html;charset=UTF-8" language="java" session="false" %>
+<c:if test="${not empty page}">
+    <c:set var="listPath" value="${requestScope['javax.servlet.async.servlet_path']}" />
+    <c:if test="${empty listPath}">
+        <c:set var="listPath" value="${requestScope['javax.servlet.forward.servlet_path']}" />
+    </c:if>
+    <nav>
+        <ul class="pagination justify-content-center">
+            <li class="page-item ${empty page.previousCursor ? 'disabled' : ''}">
+                <c:url var="previousUrl" value="${listPath}">
+                    <c:param name="before" value="${page.previousCursor}" />
+                    <c:if test="${not empty param.size}"><c:param name="size" value="${param.size}" /></c:if>
+                    <c:if test="${not empty param.manufacturer_id}"><c:param name="manufacturer_id" value="${param.manufacturer_id}" /></c:if>
+                    <c:if test="${not empty param.model}"><c:param name="model" value="${param.model}" /></c:if>
+                    <c:if test="${not empty param.name}"><c:param name="name" value="${param.name}" /></c:if>
+                </c:url>
+                <a class="page-link" href="${previousUrl}">Previous</a>
+            </li>
+            <li class="page-item ${empty page.nextCursor ? 'disabled' : ''}">
+                <c:url var="nextUrl" value="${listPath}">
+                    <c:param name="after" value="${page.nextCursor}" />
+                    <c:if test="${not empty param.size}"><c:param name="size" value="${param.size}" /></c:if>
+                    <c:if test="${not empty param.manufacturer_id}"><c:param name="manufacturer_id" value="${param.manufacturer_id}" /></c:if>
+                    <c:if test="${not empty param.model}"><c:param name="model" value="${param.model}" /></c:if>
+                    <c:if test="${not empty param.name}"><c:param name="name" value="${param.name}" /></c:if>
+                </c:url>
+                <a class="page-link" href="${nextUrl}">Next</a>
+            </li>
+        </ul>
+    </nav>
+</c:if>
@@ -0,0 +1,130 @@
+package taxi.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import taxi.benchmark.EmbeddedDatabase;
+import taxi.lib.Injector;
+import taxi.model.Car;
+import taxi.model.CarListRow;
+import taxi.model.Page;
+import taxi.model.PageRequest;
+import taxi.service.CarService;
+import taxi.service.DriverCarIndex;
+
+/**
+ * Counts the driver queries behind the car reads, including the "my cars" page, with
+ * H2's query statistics, which record how often each distinct statement ran.
+ */
+class CarDaoImplTest {
+    private static final int FLEET_SIZE = 1_100;
+    private static CarDao carDao;
+    private static CarService carService;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        EmbeddedDatabase.start(FLEET_SIZE);
+        Injector injector = Injector.getInstance("taxi");
+        carDao = (CarDao) injector.getInstance(CarDao.class);
+        carService = (CarService) injector.getInstance(CarService.class);
+        ((DriverCarIndex) injector.getInstance(DriverCarIndex.class)).reload();
+    }
+
+    @BeforeEach
+    void resetStatistics() throws SQLException {
+        execute("SET QUERY_STATISTICS FALSE");
+        execute("SET QUERY_STATISTICS TRUE");
+    }
+
+    @Test
+    void getAllLoadsDriversOneQueryPerChunk() throws SQLException {
+        List<Car> cars = carDao.getAll();
+
+        assertEquals(FLEET_SIZE, cars.size());
+        assertTrue(cars.stream().allMatch(car ->
+                car.getDrivers().size() == EmbeddedDatabase.DRIVERS_PER_CAR));
+        assertEquals(3, driverQueries());
+    }
+
+    @Test
+    void getAllByIdsLoadsDriversOneQueryPerChunk() throws SQLException {
+        List<Long> ids = LongStream.rangeClosed(1, 600).boxed().collect(Collectors.toList());
+        List<Car> cars = carDao.getAllByIds(ids);
+
+        assertEquals(600, cars.size());
+        assertEquals(2, driverQueries());
+    }
+
+    @Test
+    void listPageLoadsDriversWithOneQuery() throws SQLException {
+        Page<CarListRow> page = carDao.getListPage(new PageRequest(50));
+
+        assertEquals(50, page.getItems().size());
+        assertTrue(page.getItems().stream().allMatch(row ->
+                row.getDrivers().size() == EmbeddedDatabase.DRIVERS_PER_CAR));
+        assertEquals(1, driverQueries());
+    }
+
+    @Test
+    void getAllByDriverLoadsDriversWithOneQuery() throws SQLException {
+        List<Car> cars = carDao.getAllByDriver(100L);
+
+        assertEquals(EmbeddedDatabase.DRIVERS_PER_CAR, cars.size());
+        assertEquals(1, driverQueries());
+    }
+
+    @Test
+    void myCarsPageRunsOneCarAndOneDriverQuery() throws SQLException {
+        List<CarListRow> rows = carService.getAllByDriver(200L).stream()
+                .map(CarListRow::of)
+                .collect(Collectors.toList());
+
+        assertEquals(EmbeddedDatabase.DRIVERS_PER_CAR, rows.size());
+        assertTrue(rows.stream().allMatch(row ->
+                row.getDrivers().size() == EmbeddedDatabase.DRIVERS_PER_CAR));
+        assertEquals(1, driverQueries());
+        assertEquals(2, queries("SELECT %"));
+    }
+
+    private static long driverQueries() throws SQLException {
+        return queries("%FROM cars_drivers cd%");
+    }
+
+    private static long queries(String pattern) throws SQLException {
+        try (Connection connection = connect();
+                PreparedStatement statement = connection.prepareStatement(
+                        "SELECT COALESCE(SUM(EXECUTION_COUNT), 0) "
+                        + "FROM INFORMATION_SCHEMA.QUERY_STATISTICS "
+                        + "WHERE SQL_STATEMENT LIKE ? "
+                        + "AND SQL_STATEMENT NOT LIKE '%QUERY_STATISTICS%'")) {
+            statement.setString(1, pattern);
+            ResultSet resultSet = statement.executeQuery();
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection connection = connect();
+                Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(System.getProperty("taxi.db.url"),
+                System.getProperty("taxi.db.username"), System.getProperty("taxi.db.password"));
+    }
+}
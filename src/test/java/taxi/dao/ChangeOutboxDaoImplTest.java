@@ -0,0 +1,40 @@
+package taxi.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import taxi.benchmark.EmbeddedDatabase;
+import taxi.lib.EntityChangeEvent;
+import taxi.lib.EntityChangeEvent.Operation;
+import taxi.lib.Injector;
+import taxi.util.TransactionManager;
+
+class ChangeOutboxDaoImplTest {
+    private static ChangeOutboxDao outbox;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        EmbeddedDatabase.start(1);
+        outbox = (ChangeOutboxDao) Injector.getInstance("taxi").getInstance(ChangeOutboxDao.class);
+    }
+
+    @Test
+    void pruneDeletesOnlyOlderChangesInBatches() {
+        List<EntityChangeEvent> events = new ArrayList<>();
+        for (long changedAt = 1_000; changedAt <= 5_000; changedAt += 1_000) {
+            events.add(new EntityChangeEvent("cars", changedAt, Operation.UPDATE, changedAt));
+        }
+        TransactionManager.inTransaction(() -> outbox.saveAll(events));
+
+        assertEquals(3, outbox.prune(3_500, 2));
+
+        List<EntityChangeEvent> kept = new ArrayList<>();
+        outbox.replay(0, 10, kept::addAll);
+        assertEquals(List.of(4_000L, 5_000L), kept.stream()
+                .map(EntityChangeEvent::getChangedAt).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,109 @@
+package taxi.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import taxi.exception.BatchProcessingException;
+
+class JdbcBatchTest {
+    private static final String INSERT = "INSERT INTO logins (login) VALUES (?)";
+    private Connection connection;
+
+    @BeforeEach
+    void createTable() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:jdbc-batch;MODE=MySQL");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE logins (id BIGINT AUTO_INCREMENT PRIMARY KEY,"
+                    + " login VARCHAR(32) NOT NULL UNIQUE)");
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @AfterEach
+    void dropTable() throws SQLException {
+        connection.rollback();
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE logins");
+        }
+        connection.close();
+    }
+
+    @Test
+    void generatedKeysFollowRowOrderAcrossChunks() throws SQLException {
+        List<String> logins = logins(JdbcBatch.BATCH_SIZE + 5);
+        Map<String, Long> ids = new HashMap<>();
+
+        JdbcBatch.insert(connection, INSERT, logins,
+                (statement, login) -> statement.setString(1, login), ids::put);
+
+        assertEquals(logins.size(), ids.size());
+        for (int i = 0; i < logins.size(); i++) {
+            assertEquals(i + 1L, ids.get(logins.get(i)));
+        }
+    }
+
+    @Test
+    void failingRowIsReportedByIndexAfterReplay() throws SQLException {
+        List<String> logins = logins(JdbcBatch.BATCH_SIZE + 5);
+        logins.set(JdbcBatch.BATCH_SIZE + 3, logins.get(JdbcBatch.BATCH_SIZE + 1));
+
+        BatchProcessingException e = assertThrows(BatchProcessingException.class,
+                () -> JdbcBatch.execute(connection, INSERT, logins,
+                        (statement, login) -> statement.setString(1, login)));
+
+        assertEquals(Set.of(JdbcBatch.BATCH_SIZE + 3), e.getRowErrors().keySet());
+        assertEquals(logins.size() - 1, count());
+    }
+
+    @Test
+    void everyRejectedRowOfTheChunkIsReported() throws SQLException {
+        List<String> logins = logins(6);
+        logins.set(2, logins.get(0));
+        logins.set(5, logins.get(1));
+
+        BatchProcessingException e = assertThrows(BatchProcessingException.class,
+                () -> JdbcBatch.execute(connection, INSERT, logins,
+                        (statement, login) -> statement.setString(1, login)));
+
+        assertEquals(Set.of(2, 5), e.getRowErrors().keySet());
+    }
+
+    @Test
+    void refusesToRunOutsideTransaction() throws SQLException {
+        connection.setAutoCommit(true);
+
+        assertThrows(SQLException.class, () -> JdbcBatch.execute(connection, INSERT,
+                logins(1), (statement, login) -> statement.setString(1, login)));
+        assertEquals(0, count());
+    }
+
+    private int count() throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM logins")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private static List<String> logins(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> "login" + i)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+}
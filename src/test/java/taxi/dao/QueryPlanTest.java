@@ -0,0 +1,101 @@
+package taxi.dao;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import taxi.benchmark.EmbeddedDatabase;
+import taxi.lib.Injector;
+import taxi.model.PageRequest;
+
+/**
+ * Explains the statements the DAOs actually ran, taken from H2's query statistics, to
+ * check that they use the indexes added by the migrations.
+ */
+class QueryPlanTest {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private static CarDao carDao;
+    private static DriverDao driverDao;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        EmbeddedDatabase.start(500);
+        carDao = (CarDao) injector.getInstance(CarDao.class);
+        driverDao = (DriverDao) injector.getInstance(DriverDao.class);
+    }
+
+    @BeforeEach
+    void resetStatistics() throws SQLException {
+        try (Connection connection = connect();
+                Statement statement = connection.createStatement()) {
+            statement.execute("SET QUERY_STATISTICS FALSE");
+            statement.execute("SET QUERY_STATISTICS TRUE");
+        }
+    }
+
+    @Test
+    void carsOfManufacturerUseActiveManufacturerIndex() throws SQLException {
+        PageRequest request = new PageRequest(20);
+        request.setManufacturerId(1L);
+        carDao.getListPage(request);
+
+        assertUses("cars_manufacturer_active", plan("c.manufacturer_id = ?", 1L, 21));
+    }
+
+    @Test
+    void credentialsByLoginUseActiveLoginIndex() throws SQLException {
+        driverDao.findCredentialsByLogin("driver1");
+
+        assertUses("drivers_login_active", plan("FROM drivers WHERE login = ?", "driver1"));
+    }
+
+    @Test
+    void carsOfDriverUseDriverCarIndex() throws SQLException {
+        carDao.getAllByDriver(1L);
+
+        assertUses("cars_drivers_driver_car", plan("AND driver_id = ?", 1L));
+    }
+
+    private static void assertUses(String index, String plan) {
+        assertTrue(plan.contains("public." + index + ":"), () -> index + " unused:\n" + plan);
+    }
+
+    /**
+     * Explains the statement that ran containing {@code marker} with the given
+     * parameters.
+     */
+    private static String plan(String marker, Object... parameters) throws SQLException {
+        try (Connection connection = connect()) {
+            String sql;
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT SQL_STATEMENT FROM INFORMATION_SCHEMA.QUERY_STATISTICS"
+                            + " WHERE SQL_STATEMENT LIKE ?"
+                            + " AND SQL_STATEMENT NOT LIKE '%QUERY_STATISTICS%'")) {
+                statement.setString(1, "%" + marker + "%");
+                ResultSet resultSet = statement.executeQuery();
+                assertTrue(resultSet.next(), () -> "No statement with " + marker + " ran");
+                sql = resultSet.getString(1);
+            }
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+                ResultSet resultSet = statement.executeQuery();
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(System.getProperty("taxi.db.url"),
+                System.getProperty("taxi.db.username"), System.getProperty("taxi.db.password"));
+    }
+}
@@ -0,0 +1,114 @@
+package taxi.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import taxi.benchmark.EmbeddedDatabase;
+import taxi.lib.Injector;
+import taxi.model.Car;
+import taxi.model.Driver;
+import taxi.model.Manufacturer;
+import taxi.util.TableVersions;
+import taxi.util.TransactionManager;
+
+/**
+ * Writes that change no row must leave the table versions, and with them every cached
+ * page, alone.
+ */
+class TableVersionBumpTest {
+    private static final long MISSING_ID = 999_999L;
+    private static CarDao carDao;
+    private static DriverDao driverDao;
+    private static ManufacturerDao manufacturerDao;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        EmbeddedDatabase.start(10);
+        Injector injector = Injector.getInstance("taxi");
+        carDao = (CarDao) injector.getInstance(CarDao.class);
+        driverDao = (DriverDao) injector.getInstance(DriverDao.class);
+        manufacturerDao = (ManufacturerDao) injector.getInstance(ManufacturerDao.class);
+    }
+
+    @Test
+    void updatesOfMissingRowsDontBump() {
+        long drivers = TableVersions.getVersion(TableVersions.DRIVERS);
+        Driver driver = new Driver();
+        driver.setId(MISSING_ID);
+        driver.setName("Nobody");
+        driver.setLicenseNumber("LN-0");
+        driver.setLogin("nobody");
+        driverDao.update(driver);
+        assertFalse(driverDao.updatePassword(MISSING_ID, "secret"));
+        assertEquals(drivers, TableVersions.getVersion(TableVersions.DRIVERS));
+
+        long manufacturers = TableVersions.getVersion(TableVersions.MANUFACTURERS);
+        Manufacturer manufacturer = new Manufacturer("Nobody", "Nowhere");
+        manufacturer.setId(MISSING_ID);
+        manufacturerDao.update(manufacturer);
+        assertEquals(manufacturers, TableVersions.getVersion(TableVersions.MANUFACTURERS));
+
+        long cars = TableVersions.getVersion(TableVersions.CARS);
+        Manufacturer existing = new Manufacturer();
+        existing.setId(1L);
+        Car car = new Car("Nothing", existing);
+        car.setId(MISSING_ID);
+        car.setDrivers(List.of());
+        carDao.update(car);
+        assertEquals(cars, TableVersions.getVersion(TableVersions.CARS));
+    }
+
+    @Test
+    void createAllBumpsAndStoresAssignments() {
+        long before = TableVersions.getVersion(TableVersions.CARS);
+        Manufacturer manufacturer = new Manufacturer();
+        manufacturer.setId(1L);
+        List<Car> cars = List.of(new Car("Batch A", manufacturer),
+                new Car("Batch B", manufacturer));
+        for (Car car : cars) {
+            Driver driver = new Driver();
+            driver.setId(2L);
+            car.setDrivers(List.of(driver));
+        }
+
+        List<Long> ids = TransactionManager.inTransaction(() -> carDao.createAll(cars)).stream()
+                .map(Car::getId)
+                .collect(Collectors.toList());
+
+        assertEquals(before + 1, TableVersions.getVersion(TableVersions.CARS));
+        assertTrue(carDao.getAllByIds(ids).stream()
+                .allMatch(car -> car.getDriverIds().length == 1));
+    }
+
+    @Test
+    void repeatedDeleteChangesOnlyOnce() {
+        assertTrue(driverDao.delete(10L));
+        long drivers = TableVersions.getVersion(TableVersions.DRIVERS);
+        assertFalse(driverDao.delete(10L));
+        assertEquals(drivers, TableVersions.getVersion(TableVersions.DRIVERS));
+
+        Manufacturer manufacturer = manufacturerDao.create(new Manufacturer("Gone", "Nowhere"));
+        assertTrue(manufacturerDao.delete(manufacturer.getId()));
+        long manufacturers = TableVersions.getVersion(TableVersions.MANUFACTURERS);
+        assertFalse(manufacturerDao.delete(manufacturer.getId()));
+        assertEquals(manufacturers, TableVersions.getVersion(TableVersions.MANUFACTURERS));
+    }
+
+    @Test
+    void repeatedAssignmentChangesOnlyOnce() {
+        long before = TableVersions.getVersion(TableVersions.CARS);
+        carDao.assignDriver(1L, 5L);
+        long assigned = TableVersions.getVersion(TableVersions.CARS);
+        assertNotEquals(before, assigned);
+
+        carDao.assignDriver(1L, 5L);
+        carDao.unassignDriver(1L, 9L);
+        assertEquals(assigned, TableVersions.getVersion(TableVersions.CARS));
+    }
+}
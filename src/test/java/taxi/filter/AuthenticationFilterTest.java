@@ -0,0 +1,83 @@
+package taxi.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import taxi.testing.Stubs;
+
+class AuthenticationFilterTest {
+    private static final String TOKEN = "scrape-secret";
+    private final AtomicBoolean chained = new AtomicBoolean();
+    private final AtomicReference<String> redirect = new AtomicReference<>();
+    private AuthenticationFilter filter;
+
+    @BeforeAll
+    static void configureToken() {
+        System.setProperty("taxi.metrics.token", TOKEN);
+    }
+
+    @BeforeEach
+    void createFilter() throws ServletException {
+        filter = new AuthenticationFilter();
+        filter.init(null);
+    }
+
+    @Test
+    void metricsWithoutCredentialsRedirectsToSignIn() throws Exception {
+        filter.doFilter(request("/metrics", null), response(), chain());
+        assertFalse(chained.get());
+        assertEquals("/sign-in", redirect.get());
+    }
+
+    @Test
+    void metricsWithWrongTokenRedirectsToSignIn() throws Exception {
+        filter.doFilter(request("/metrics", "Bearer " + TOKEN + "x"), response(), chain());
+        assertFalse(chained.get());
+        assertEquals("/sign-in", redirect.get());
+    }
+
+    @Test
+    void metricsWithTokenIsServed() throws Exception {
+        filter.doFilter(request("/metrics", "Bearer " + TOKEN), response(), chain());
+        assertTrue(chained.get());
+        assertNull(redirect.get());
+    }
+
+    @Test
+    void tokenDoesNotOpenOtherPages() throws Exception {
+        filter.doFilter(request("/cars", "Bearer " + TOKEN), response(), chain());
+        assertFalse(chained.get());
+        assertEquals("/sign-in", redirect.get());
+    }
+
+    private HttpServletRequest request(String servletPath, String authorization) {
+        Map<String, Stubs.Answer> answers = new HashMap<>();
+        answers.put("getServletPath", args -> servletPath);
+        answers.put("getHeader", args -> "Authorization".equals(args[0]) ? authorization : null);
+        return Stubs.stub(HttpServletRequest.class, answers);
+    }
+
+    private HttpServletResponse response() {
+        return Stubs.stub(HttpServletResponse.class, Map.of("sendRedirect", args -> {
+            redirect.set((String) args[0]);
+            return null;
+        }));
+    }
+
+    private FilterChain chain() {
+        return (request, response) -> chained.set(true);
+    }
+}
@@ -0,0 +1,141 @@
+package taxi.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import taxi.benchmark.EmbeddedDatabase;
+import taxi.testing.Stubs;
+import taxi.util.TableVersions;
+import taxi.util.TransactionManager;
+
+class PageCacheFilterTest {
+    private static final String TABLE = TableVersions.MANUFACTURERS;
+    private final AtomicInteger rendered = new AtomicInteger();
+    private PageCacheFilter filter;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        EmbeddedDatabase.start(10);
+    }
+
+    @BeforeEach
+    void createFilter() {
+        filter = new PageCacheFilter();
+    }
+
+    @Test
+    void versionChangesOnlyWhenTransactionCommits() {
+        long before = TableVersions.getVersion(TABLE);
+        TransactionManager.inTransaction(() -> {
+            TableVersions.bump(TABLE);
+            assertEquals(before, TableVersions.getVersion(TABLE));
+        });
+        assertEquals(before + 1, TableVersions.getVersion(TABLE));
+
+        assertThrows(IllegalStateException.class, () -> TransactionManager.inTransaction(() -> {
+            TableVersions.bump(TABLE);
+            throw new IllegalStateException("rollback expected by the test");
+        }));
+        assertEquals(before + 1, TableVersions.getVersion(TABLE));
+    }
+
+    @Test
+    void matchingEtagIsAnsweredWith304() throws Exception {
+        Exchange first = get(null);
+        Exchange revalidated = get(first.headers.get("ETag"));
+
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, revalidated.status);
+        assertEquals("", revalidated.body.toString());
+        assertEquals(1, rendered.get());
+    }
+
+    @Test
+    void committedWriteChangesEtag() throws Exception {
+        Exchange first = get(null);
+        TableVersions.bump(TABLE);
+        Exchange second = get(first.headers.get("ETag"));
+
+        assertNotEquals(first.headers.get("ETag"), second.headers.get("ETag"));
+        assertEquals(HttpServletResponse.SC_OK, second.status);
+        assertEquals(2, rendered.get());
+    }
+
+    @Test
+    void renderedPageIsReusedUntilVersionChanges() throws Exception {
+        assertEquals("page 1", get(null).body.toString());
+        assertEquals("page 1", get(null).body.toString());
+        assertEquals(1, rendered.get());
+
+        TableVersions.bump(TABLE);
+        assertEquals("page 2", get(null).body.toString());
+    }
+
+    @Test
+    void lastModifiedWaitsUntilSecondOfWriteIsOver() throws Exception {
+        TableVersions.bump(TABLE);
+        Exchange fresh = get(null, System.currentTimeMillis() + 3_600_000);
+        assertEquals(HttpServletResponse.SC_OK, fresh.status);
+        assertFalse(fresh.dates.containsKey("Last-Modified"));
+
+        Thread.sleep(1_000);
+        Exchange settled = get(null, -1);
+        long lastModified = settled.dates.get("Last-Modified");
+        assertEquals(TableVersions.getLastModified(TABLE) / 1000 * 1000, lastModified);
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, get(null, lastModified).status);
+    }
+
+    private Exchange get(String ifNoneMatch) throws Exception {
+        return get(ifNoneMatch, -1);
+    }
+
+    private Exchange get(String ifNoneMatch, long ifModifiedSince) throws Exception {
+        Exchange exchange = new Exchange();
+        Map<String, Stubs.Answer> requestAnswers = new HashMap<>();
+        requestAnswers.put("getServletPath", args -> "/" + TABLE);
+        requestAnswers.put("getMethod", args -> "GET");
+        requestAnswers.put("getAttribute", args ->
+                AuthenticationFilter.DRIVER_ID.equals(args[0]) ? 1L : null);
+        requestAnswers.put("getHeader", args ->
+                "If-None-Match".equals(args[0]) ? ifNoneMatch : null);
+        requestAnswers.put("getDateHeader", args ->
+                "If-Modified-Since".equals(args[0]) ? ifModifiedSince : -1L);
+        Map<String, Stubs.Answer> responseAnswers = new HashMap<>();
+        responseAnswers.put("setHeader", args -> exchange.headers.put((String) args[0],
+                (String) args[1]));
+        responseAnswers.put("setDateHeader", args -> exchange.dates.put((String) args[0],
+                (Long) args[1]));
+        responseAnswers.put("setStatus", args -> {
+            exchange.status = (Integer) args[0];
+            return null;
+        });
+        responseAnswers.put("getStatus", args -> exchange.status);
+        responseAnswers.put("getWriter", args -> exchange.writer);
+        FilterChain chain = (request, response) ->
+                response.getWriter().write("page " + rendered.incrementAndGet());
+        filter.doFilter(Stubs.stub(HttpServletRequest.class, requestAnswers),
+                Stubs.stub(HttpServletResponse.class, responseAnswers), chain);
+        exchange.writer.flush();
+        return exchange;
+    }
+
+    private static class Exchange {
+        private final Map<String, String> headers = new HashMap<>();
+        private final Map<String, Long> dates = new HashMap<>();
+        private final StringWriter body = new StringWriter();
+        private final PrintWriter writer = new PrintWriter(body);
+        private int status = HttpServletResponse.SC_OK;
+    }
+}
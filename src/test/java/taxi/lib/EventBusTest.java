@@ -0,0 +1,112 @@
+package taxi.lib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import taxi.benchmark.EmbeddedDatabase;
+import taxi.dao.ChangeOutboxDao;
+import taxi.dao.ManufacturerDao;
+import taxi.model.Manufacturer;
+import taxi.service.ManufacturerService;
+import taxi.util.ConnectionUtil;
+import taxi.util.TransactionManager;
+
+class EventBusTest {
+    private static final Injector injector = Injector.getInstance("taxi");
+    private static final BlockingQueue<EntityChangeEvent> delivered = new LinkedBlockingQueue<>();
+    private static volatile boolean outboxFails;
+    private static ManufacturerService manufacturerService;
+    private static ManufacturerDao manufacturerDao;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        EmbeddedDatabase.start(10);
+        manufacturerService = (ManufacturerService) injector
+                .getInstance(ManufacturerService.class);
+        manufacturerDao = (ManufacturerDao) injector.getInstance(ManufacturerDao.class);
+        ChangeOutboxDao outboxDao = (ChangeOutboxDao) injector.getInstance(ChangeOutboxDao.class);
+        EventBus.subscribeInTransaction(events -> {
+            if (outboxFails) {
+                throw new IllegalStateException("outbox failure expected by the test");
+            }
+            outboxDao.saveAll(events);
+        });
+        EventBus.subscribe(delivered::addAll);
+    }
+
+    @BeforeEach
+    void reset() {
+        outboxFails = false;
+        delivered.clear();
+    }
+
+    @Test
+    void committedWriteStoresOutboxRowAndNotifiesListeners() throws Exception {
+        long outboxRows = count("entity_changes");
+        Manufacturer created = manufacturerService.create(new Manufacturer("Tesla", "USA"));
+
+        assertEquals(outboxRows + 1, count("entity_changes"));
+        EntityChangeEvent event = delivered.poll(5, TimeUnit.SECONDS);
+        assertEquals(created.getId(), event == null ? null : event.getId());
+    }
+
+    @Test
+    void rolledBackWriteLeavesNoOutboxRowAndNoEvent() throws Exception {
+        long outboxRows = count("entity_changes");
+        long manufacturers = count("manufacturers");
+        assertThrows(IllegalStateException.class, () -> TransactionManager.inTransaction(() -> {
+            manufacturerDao.create(new Manufacturer("Rolled", "Back"));
+            throw new IllegalStateException("rollback expected by the test");
+        }));
+
+        assertEquals(outboxRows, count("entity_changes"));
+        assertEquals(manufacturers, count("manufacturers"));
+        assertNull(delivered.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void failingOutboxRollsTheWriteBack() throws Exception {
+        long manufacturers = count("manufacturers");
+        outboxFails = true;
+        assertThrows(IllegalStateException.class,
+                () -> manufacturerService.create(new Manufacturer("Lost", "Nowhere")));
+
+        assertEquals(manufacturers, count("manufacturers"));
+    }
+
+    @Test
+    void bulkInsertStoresOneOutboxRowPerEntity() throws Exception {
+        long outboxRows = count("entity_changes");
+        manufacturerService.createAll(List.of(new Manufacturer("A", "X"),
+                new Manufacturer("B", "Y"), new Manufacturer("C", "Z")));
+
+        assertEquals(outboxRows + 3, count("entity_changes"));
+    }
+
+    @Test
+    void writeOutsideTransactionIsRefused() {
+        assertThrows(IllegalStateException.class,
+                () -> manufacturerDao.create(new Manufacturer("No", "Transaction")));
+    }
+
+    private static long count(String table) throws SQLException {
+        try (Connection connection = ConnectionUtil.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package taxi.lib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import taxi.service.CarService;
+
+class InjectorTest {
+    private final Injector injector = Injector.getInstance("taxi");
+
+    @Test
+    void listenersAreFoundWithoutBinding() {
+        List<EntityChangeListener> listeners = injector.getAll(EntityChangeListener.class);
+
+        assertEquals(1, listeners.size());
+        assertSame(injector.getInstance(CarService.class), listeners.get(0));
+        assertThrows(RuntimeException.class,
+                () -> injector.getInstance(EntityChangeListener.class));
+    }
+}
@@ -0,0 +1,47 @@
+package taxi.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class EntityEqualityTest {
+    @Test
+    void entitiesAreValuesByDefault() {
+        assertEquals(driver(0, "Anna"), driver(0, "Anna"));
+        assertEquals(driver(0, "Anna").hashCode(), driver(0, "Anna").hashCode());
+        assertEquals(driver(7, "Anna"), driver(7, "Anna"));
+        assertNotEquals(driver(7, "Anna"), driver(7, "Bob"));
+        assertNotEquals(driver(7, "Anna"), driver(8, "Anna"));
+        assertNotEquals(driver(0, "Anna"), driver(7, "Anna"));
+    }
+
+    @Test
+    void unsavedEqualEntitiesCollapseInSets() {
+        Set<Manufacturer> manufacturers = new HashSet<>();
+        manufacturers.add(new Manufacturer("Toyota", "Japan"));
+        manufacturers.add(new Manufacturer("Toyota", "Japan"));
+        assertEquals(1, manufacturers.size());
+    }
+
+    @Test
+    void idIsReadWithoutBoxing() {
+        Car car = new Car();
+        assertEquals(0, car.id());
+        car.setId(1_000L);
+        assertEquals(1_000, car.id());
+        assertEquals(1_000L, car.getId());
+    }
+
+    static Driver driver(long id, String name) {
+        Driver driver = new Driver();
+        if (id != 0) {
+            driver.setId(id);
+        }
+        driver.setName(name);
+        driver.setLogin(name.toLowerCase());
+        return driver;
+    }
+}
@@ -0,0 +1,47 @@
+package taxi.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static taxi.model.EntityEqualityTest.driver;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class IdEqualityTest {
+    @BeforeAll
+    static void enableIdEquality() {
+        System.setProperty("taxi.model.idEquality", "true");
+    }
+
+    @Test
+    void savedEntitiesCompareById() {
+        assertEquals(driver(7, "Anna"), driver(7, "Bob"));
+        assertEquals(driver(7, "Anna").hashCode(), driver(7, "Bob").hashCode());
+        assertNotEquals(driver(7, "Anna"), driver(8, "Anna"));
+    }
+
+    @Test
+    void unsavedEntitiesStillCompareByValue() {
+        assertEquals(driver(0, "Anna"), driver(0, "Anna"));
+        assertNotEquals(driver(0, "Anna"), driver(0, "Bob"));
+        assertNotEquals(driver(0, "Anna"), driver(7, "Anna"));
+        assertNotEquals(driver(7, "Anna"), driver(0, "Anna"));
+    }
+
+    @Test
+    void carsHashWithoutTheirDrivers() {
+        Car car = new Car("Corolla", null);
+        car.setId(1L);
+        car.setDrivers(List.of(driver(7, "Anna")));
+        Car reloaded = new Car("Corolla", null);
+        reloaded.setId(1L);
+        reloaded.setDrivers(List.of(driver(7, "Anna"), driver(8, "Bob")));
+
+        Set<Car> cars = new HashSet<>(List.of(car));
+        assertTrue(cars.contains(reloaded));
+    }
+}
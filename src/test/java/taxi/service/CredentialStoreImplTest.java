@@ -0,0 +1,94 @@
+package taxi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import taxi.benchmark.EmbeddedDatabase;
+import taxi.exception.AuthenticationException;
+import taxi.lib.Injector;
+import taxi.util.PasswordHasher;
+
+class CredentialStoreImplTest {
+    private static final String ATTACKER = "203.0.113.7";
+    private static final String DRIVER = "198.51.100.1";
+    private static CredentialStore credentialStore;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        System.setProperty("taxi.auth.pbkdf2.iterations", "1000");
+        System.setProperty("taxi.auth.maxFailures", "2");
+        EmbeddedDatabase.start(10);
+        credentialStore = (CredentialStore) Injector.getInstance("taxi")
+                .getInstance(CredentialStore.class);
+    }
+
+    @Test
+    void lockoutDoesNotReachOtherAddresses() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            assertThrows(AuthenticationException.class,
+                    () -> credentialStore.authenticate("driver1", "guess", ATTACKER));
+        }
+        AuthenticationException locked = assertThrows(AuthenticationException.class,
+                () -> credentialStore.authenticate("driver1", "password1", ATTACKER));
+        assertTrue(locked.getMessage().startsWith("Too many"));
+
+        assertEquals(1L, credentialStore.authenticate("driver1", "password1", DRIVER));
+    }
+
+    @Test
+    void successResetsFailuresOfThatAddress() throws Exception {
+        assertThrows(AuthenticationException.class,
+                () -> credentialStore.authenticate("driver2", "guess", DRIVER));
+        assertEquals(2L, credentialStore.authenticate("driver2", "password2", DRIVER));
+        assertThrows(AuthenticationException.class,
+                () -> credentialStore.authenticate("driver2", "guess", DRIVER));
+        assertEquals(2L, credentialStore.authenticate("driver2", "password2", DRIVER));
+    }
+
+    @Test
+    void hashTreatsHashLikeInputAsPassword() {
+        String input = PasswordHasher.hash("secret");
+        String hashed = credentialStore.hash(input);
+
+        assertNotEquals(input, hashed);
+        assertTrue(PasswordHasher.matches(input, hashed));
+        assertFalse(PasswordHasher.matches("secret", hashed));
+    }
+
+    @Test
+    void hashAllKeepsOrder() {
+        List<String> passwords = List.of("a", "b", "c", "d", "e");
+        List<String> hashes = credentialStore.hashAll(passwords);
+
+        assertEquals(passwords.size(), hashes.size());
+        for (int i = 0; i < passwords.size(); i++) {
+            assertTrue(PasswordHasher.matches(passwords.get(i), hashes.get(i)));
+        }
+    }
+
+    @Test
+    void onlyCompleteHashesAreWellFormed() {
+        assertTrue(PasswordHasher.isWellFormed(PasswordHasher.hash("secret")));
+        assertFalse(PasswordHasher.isWellFormed("pbkdf2$"));
+        assertFalse(PasswordHasher.isWellFormed("pbkdf2$1000$c2FsdA$aGFzaA"));
+        assertFalse(PasswordHasher.isWellFormed("secret"));
+    }
+
+    @Test
+    void costsFarFromConfiguredOneAreRefused() {
+        String tampered = PasswordHasher.hash("secret")
+                .replace("pbkdf2$1000$", "pbkdf2$2000000000$");
+
+        assertFalse(PasswordHasher.isWellFormed(tampered));
+        assertFalse(PasswordHasher.matches("secret", tampered));
+        assertFalse(PasswordHasher.isWellFormed(PasswordHasher.hash("secret", 100)));
+        assertTrue(PasswordHasher.isWellFormed(PasswordHasher.hash("secret", 4000)));
+        assertTrue(PasswordHasher.matches("secret", PasswordHasher.hash("secret", 4000)));
+    }
+}
@@ -0,0 +1,54 @@
+package taxi.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import taxi.benchmark.EmbeddedDatabase;
+import taxi.lib.Injector;
+
+class DriverCarIndexImplTest {
+    private static DriverCarIndex index;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        EmbeddedDatabase.start(10);
+        index = (DriverCarIndex) Injector.getInstance("taxi").getInstance(DriverCarIndex.class);
+    }
+
+    @Test
+    void replaceCarMovesAssignments() {
+        assertArrayEquals(new long[] {1, 2, 3}, index.getDriverIds(1));
+
+        index.replaceCar(1, new long[] {3, 7});
+
+        assertArrayEquals(new long[] {3, 7}, index.getDriverIds(1));
+        assertArrayEquals(new long[] {9, 10}, index.getCarIds(1));
+        assertArrayEquals(new long[] {1, 2, 3}, index.getCarIds(3));
+        assertArrayEquals(new long[] {1, 5, 6, 7}, index.getCarIds(7));
+    }
+
+    @Test
+    void readersNeverSeeReplacedCarWithoutDrivers() throws Exception {
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger empty = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            while (writing.get()) {
+                if (index.getDriverIds(2).length == 0) {
+                    empty.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 20_000; i++) {
+            index.replaceCar(2, i % 2 == 0 ? new long[] {4, 5} : new long[] {2, 3, 4});
+        }
+        writing.set(false);
+        reader.join();
+
+        assertEquals(0, empty.get());
+    }
+}
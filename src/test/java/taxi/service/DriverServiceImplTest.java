@@ -0,0 +1,85 @@
+package taxi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import taxi.benchmark.EmbeddedDatabase;
+import taxi.exception.AuthenticationException;
+import taxi.exception.DataProcessingException;
+import taxi.lib.Injector;
+import taxi.model.Driver;
+
+class DriverServiceImplTest {
+    private static final String ADDRESS = "198.51.100.1";
+    private static DriverService driverService;
+    private static CredentialStore credentialStore;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        System.setProperty("taxi.auth.pbkdf2.iterations", "1000");
+        EmbeddedDatabase.start(10);
+        Injector injector = Injector.getInstance("taxi");
+        driverService = (DriverService) injector.getInstance(DriverService.class);
+        credentialStore = (CredentialStore) injector.getInstance(CredentialStore.class);
+    }
+
+    @Test
+    void updateOfLoadedDriverKeepsPassword() throws Exception {
+        Long id = driverService.create(newDriver("keeper", "secret")).getId();
+
+        Driver loaded = driverService.get(id);
+        loaded.setName("Renamed");
+        driverService.update(loaded);
+
+        assertEquals("Renamed", driverService.get(id).getName());
+        assertEquals(id, credentialStore.authenticate("keeper", "secret", ADDRESS));
+    }
+
+    @Test
+    void updateHashesNewPlainTextPassword() throws Exception {
+        Long id = driverService.create(newDriver("changer", "old")).getId();
+
+        Driver loaded = driverService.get(id);
+        loaded.setPassword("new");
+        driverService.update(loaded);
+
+        assertEquals(id, credentialStore.authenticate("changer", "new", ADDRESS));
+        assertThrows(AuthenticationException.class,
+                () -> credentialStore.authenticate("changer", "old", ADDRESS));
+    }
+
+    @Test
+    void changePasswordStoresHash() throws Exception {
+        Long id = driverService.create(newDriver("rotator", "first")).getId();
+
+        assertTrue(driverService.changePassword(id, "second"));
+
+        assertTrue(driverService.get(id).getPassword().startsWith("pbkdf2$"));
+        assertEquals(id, credentialStore.authenticate("rotator", "second", ADDRESS));
+    }
+
+    @Test
+    void failedCreateThrowsAndStoresNothing() {
+        driverService.create(newDriver("twin", "secret"));
+        Driver twin = newDriver("twin", "other");
+
+        assertThrows(DataProcessingException.class, () -> driverService.create(twin));
+        assertNull(twin.getId());
+        assertEquals(1, driverService.getAll().stream()
+                .filter(driver -> "twin".equals(driver.getLogin()))
+                .count());
+    }
+
+    private static Driver newDriver(String login, String password) {
+        Driver driver = new Driver();
+        driver.setName(login);
+        driver.setLicenseNumber("LN-" + login);
+        driver.setLogin(login);
+        driver.setPassword(password);
+        return driver;
+    }
+}
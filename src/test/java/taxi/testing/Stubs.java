@@ -0,0 +1,52 @@
+package taxi.testing;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+/**
+ * Minimal stand-ins for container interfaces such as the servlet API. A stub answers
+ * the methods given by name and returns null, false or 0 from all others.
+ */
+public final class Stubs {
+    private Stubs() {
+    }
+
+    @FunctionalInterface
+    public interface Answer {
+        Object answer(Object[] args) throws Throwable;
+    }
+
+    public static <T> T stub(Class<T> type, Map<String, Answer> answers) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (self, method, args) -> {
+                    Answer answer = answers.get(method.getName());
+                    if (answer != null) {
+                        return answer.answer(args == null ? new Object[0] : args);
+                    }
+                    switch (method.getName()) {
+                        case "equals":
+                            return self == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(self);
+                        case "toString":
+                            return type.getSimpleName() + " stub";
+                        default:
+                            return defaultValue(method.getReturnType());
+                    }
+                });
+        return type.cast(proxy);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,75 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class AuthTokensTest {
+    private static final byte[] SECRET = "0123456789abcdef0123456789abcdef"
+            .getBytes(StandardCharsets.US_ASCII);
+
+    @BeforeAll
+    static void configureSecret() {
+        System.setProperty("taxi.auth.secret", Base64.getEncoder().encodeToString(SECRET));
+    }
+
+    @Test
+    void issuedTokenNamesDriver() {
+        assertEquals(7L, AuthTokens.verify(AuthTokens.issue(7L)));
+    }
+
+    @Test
+    void tamperedTokensAreRejected() {
+        String token = AuthTokens.issue(7L);
+        String[] parts = token.split("\\.");
+
+        assertNull(AuthTokens.verify("8." + parts[1] + "." + parts[2]));
+        assertNull(AuthTokens.verify(parts[0] + "." + (Long.parseLong(parts[1]) + 3600)
+                + "." + parts[2]));
+        char last = parts[2].charAt(parts[2].length() - 1);
+        assertNull(AuthTokens.verify(token.substring(0, token.length() - 1)
+                + (last == 'A' ? 'B' : 'A')));
+        assertNull(AuthTokens.verify(sign("7." + parts[1], "another secret")));
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        long expired = System.currentTimeMillis() / 1000 - 1;
+        long valid = System.currentTimeMillis() / 1000 + 60;
+
+        assertNull(AuthTokens.verify(sign("7." + expired, SECRET)));
+        assertEquals(7L, AuthTokens.verify(sign("7." + valid, SECRET)));
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        assertNull(AuthTokens.verify(null));
+        assertNull(AuthTokens.verify(""));
+        assertNull(AuthTokens.verify("7"));
+        assertNull(AuthTokens.verify(".1.x"));
+        assertNull(AuthTokens.verify(sign("x.1", SECRET)));
+    }
+
+    private static String sign(String payload, String secret) {
+        return sign(payload, secret.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String sign(String payload, byte[] secret) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            byte[] signature = mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+            return payload + "." + Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import taxi.testing.Stubs;
+
+class BulkheadTest {
+    private static final long WAIT_SECONDS = 5;
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+    private final AtomicReference<AsyncListener> listener = new AtomicReference<>();
+    private final AtomicReference<AsyncContext> context = new AtomicReference<>();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private CountDownLatch dispatching = new CountDownLatch(0);
+    private CountDownLatch dispatchReleased = new CountDownLatch(0);
+
+    @Test
+    void forwardsWithAttributes() throws Exception {
+        Map<String, Object> attributes = new HashMap<>();
+        Bulkhead.of("forward").dispatch(request(attributes), response(), "/view.jsp",
+                () -> Map.of("cars", List.of()));
+        assertTrue(finished.await(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(List.of("dispatch /view.jsp"), calls);
+        assertEquals(List.of(), attributes.get("cars"));
+    }
+
+    @Test
+    void timeoutDuringForwardWaitsAndDoesNotAnswer() throws Exception {
+        Bulkhead bulkhead = Bulkhead.of("race");
+        dispatching = new CountDownLatch(1);
+        dispatchReleased = new CountDownLatch(1);
+        bulkhead.dispatch(request(new HashMap<>()), response(), "/view.jsp", Map::of);
+        assertTrue(dispatching.await(WAIT_SECONDS, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> timeout = CompletableFuture.runAsync(this::fireTimeout);
+        Thread.sleep(100);
+        assertFalse(timeout.isDone(), "the timeout must wait for the forward");
+        dispatchReleased.countDown();
+        timeout.get(WAIT_SECONDS, TimeUnit.SECONDS);
+
+        assertEquals(List.of("dispatch /view.jsp"), calls);
+        assertEquals(0, bulkhead.getTimedOut());
+    }
+
+    @Test
+    void timeoutBeforeWorkFinishesAnswers503Once() throws Exception {
+        Bulkhead bulkhead = Bulkhead.of("slow");
+        CountDownLatch workReleased = new CountDownLatch(1);
+        CountDownLatch workDone = new CountDownLatch(1);
+        bulkhead.dispatch(request(new HashMap<>()), response(), "/view.jsp", () -> {
+            await(workReleased);
+            workDone.countDown();
+            return Map.of();
+        });
+        fireTimeout();
+        workReleased.countDown();
+        assertTrue(workDone.await(WAIT_SECONDS, TimeUnit.SECONDS));
+        Thread.sleep(50);
+
+        assertEquals(List.of("sendError 503", "complete"), calls);
+        assertEquals(1, bulkhead.getTimedOut());
+    }
+
+    @Test
+    void failedWorkAnswers500() throws Exception {
+        Bulkhead.of("failing").dispatch(request(new HashMap<>()), response(), "/view.jsp",
+                () -> {
+                    throw new IllegalStateException("expected by the test");
+                });
+        assertTrue(finished.await(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(List.of("sendError 500", "complete"), calls);
+    }
+
+    @Test
+    void fullQueueAnswers503() throws Exception {
+        System.setProperty("taxi.bulkhead.full.threads", "1");
+        System.setProperty("taxi.bulkhead.full.queueSize", "1");
+        Bulkhead bulkhead = Bulkhead.of("full");
+        CountDownLatch workReleased = new CountDownLatch(1);
+        for (int i = 0; i < 2; i++) {
+            bulkhead.dispatch(request(new HashMap<>()), Stubs.stub(HttpServletResponse.class,
+                    Map.of()), "/view.jsp", () -> {
+                    await(workReleased);
+                    return Map.of();
+                });
+        }
+        bulkhead.dispatch(request(new HashMap<>()), response(), "/view.jsp", Map::of);
+
+        assertEquals(List.of("Retry-After", "sendError 503", "complete"), calls);
+        assertEquals(1, bulkhead.getRejected());
+        workReleased.countDown();
+    }
+
+    private void fireTimeout() {
+        try {
+            listener.get().onTimeout(new AsyncEvent(context.get()));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpServletRequest request(Map<String, Object> attributes) {
+        Map<String, Stubs.Answer> answers = new HashMap<>();
+        answers.put("getServletPath", args -> "/test");
+        answers.put("setAttribute", args -> attributes.put((String) args[0], args[1]));
+        answers.put("startAsync", args -> asyncContext((HttpServletResponse) args[1]));
+        return Stubs.stub(HttpServletRequest.class, answers);
+    }
+
+    private HttpServletResponse response() {
+        Map<String, Stubs.Answer> answers = new HashMap<>();
+        answers.put("sendError", args -> calls.add("sendError " + args[0]));
+        answers.put("setHeader", args -> calls.add((String) args[0]));
+        return Stubs.stub(HttpServletResponse.class, answers);
+    }
+
+    private AsyncContext asyncContext(HttpServletResponse response) {
+        Map<String, Stubs.Answer> answers = new HashMap<>();
+        answers.put("getResponse", args -> response);
+        answers.put("addListener", args -> {
+            listener.compareAndSet(null, (AsyncListener) args[0]);
+            return null;
+        });
+        answers.put("dispatch", args -> {
+            dispatching.countDown();
+            await(dispatchReleased);
+            calls.add("dispatch " + args[0]);
+            finished.countDown();
+            return null;
+        });
+        answers.put("complete", args -> {
+            calls.add("complete");
+            finished.countDown();
+            return null;
+        });
+        AsyncContext created = Stubs.stub(AsyncContext.class, answers);
+        context.compareAndSet(null, created);
+        return created;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(WAIT_SECONDS, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out waiting for the test");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
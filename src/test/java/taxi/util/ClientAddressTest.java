@@ -0,0 +1,47 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import taxi.testing.Stubs;
+
+class ClientAddressTest {
+    private static final String BALANCER = "10.0.0.2";
+    private static final String EDGE = "10.0.0.3";
+    private static final String CLIENT = "203.0.113.7";
+
+    @BeforeAll
+    static void trustBalancer() {
+        System.setProperty("taxi.http.trustedProxies", BALANCER + ", " + EDGE);
+    }
+
+    @Test
+    void directClientIsRemoteAddress() {
+        assertEquals(CLIENT, ClientAddress.of(request(CLIENT, "198.51.100.1")));
+    }
+
+    @Test
+    void trustedProxyForwardsClient() {
+        assertEquals(CLIENT, ClientAddress.of(request(BALANCER, CLIENT)));
+    }
+
+    @Test
+    void spoofedEntriesLeftOfClientAreIgnored() {
+        assertEquals(CLIENT, ClientAddress.of(request(BALANCER,
+                "198.51.100.1, " + CLIENT + ", " + EDGE)));
+    }
+
+    @Test
+    void trustedProxyWithoutHeaderIsItself() {
+        assertEquals(BALANCER, ClientAddress.of(request(BALANCER, null)));
+    }
+
+    private HttpServletRequest request(String remoteAddress, String forwardedFor) {
+        return Stubs.stub(HttpServletRequest.class, Map.of(
+                "getRemoteAddr", args -> remoteAddress,
+                "getHeader", args -> "X-Forwarded-For".equals(args[0]) ? forwardedFor : null));
+    }
+}
@@ -0,0 +1,62 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ConnectionPoolTest {
+    private static final String URL = "jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1";
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void createPool() {
+        Properties properties = new Properties();
+        properties.setProperty("user", "sa");
+        properties.setProperty("password", "");
+        PoolConfig config = new PoolConfig();
+        config.setMinSize(0);
+        config.setMaxSize(1);
+        pool = new ConnectionPool(URL, properties, config);
+    }
+
+    @AfterEach
+    void closePool() {
+        pool.close();
+    }
+
+    @Test
+    void releaseRestoresIsolationLevel() throws SQLException {
+        int defaultIsolation;
+        try (Connection connection = pool.getConnection()) {
+            defaultIsolation = connection.getTransactionIsolation();
+            connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        }
+        try (Connection connection = pool.getConnection()) {
+            assertEquals(defaultIsolation, connection.getTransactionIsolation());
+        }
+    }
+
+    @Test
+    void releaseRollsBackOpenTransaction() throws SQLException {
+        try (Connection connection = pool.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS pool_test (id INT)");
+            statement.execute("DELETE FROM pool_test");
+            connection.setAutoCommit(false);
+            statement.execute("INSERT INTO pool_test VALUES (1)");
+        }
+        try (Connection connection = pool.getConnection();
+                Statement statement = connection.createStatement()) {
+            assertTrue(connection.getAutoCommit());
+            assertFalse(statement.executeQuery("SELECT id FROM pool_test").next());
+        }
+    }
+}
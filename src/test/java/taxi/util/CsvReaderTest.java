@@ -0,0 +1,50 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CsvReaderTest {
+    @Test
+    void readsQuotedCommasQuotesAndLineBreaks() throws IOException {
+        CsvReader reader = reader("a,\"b,c\",\"d \"\"e\"\"\"\r\n\"multi\nline\",x\n");
+
+        assertEquals(List.of("a", "b,c", "d \"e\""), reader.readRecord());
+        assertEquals(List.of("multi\nline", "x"), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void skipsBlankLinesAndCountsLinesOfQuotedFields() throws IOException {
+        CsvReader reader = reader("\n\"one\ntwo\",3\r\n\r\nlast");
+
+        assertEquals(List.of("one\ntwo", "3"), reader.readRecord());
+        assertEquals(2, reader.getLineNumber());
+        assertEquals(List.of("last"), reader.readRecord());
+        assertEquals(5, reader.getLineNumber());
+    }
+
+    @Test
+    void keepsEmptyFields() throws IOException {
+        assertEquals(List.of("", "", ""), reader(",,\n").readRecord());
+        assertEquals(List.of("a", ""), reader("a,\"\"").readRecord());
+    }
+
+    @Test
+    void unterminatedQuoteNamesItsLine() throws IOException {
+        CsvReader reader = reader("ok\n\"open,\nfield");
+        reader.readRecord();
+
+        IOException e = assertThrows(IOException.class, reader::readRecord);
+        assertEquals("Unterminated quoted field starting on line 2", e.getMessage());
+    }
+
+    private static CsvReader reader(String csv) {
+        return new CsvReader(new StringReader(csv));
+    }
+}
@@ -0,0 +1,56 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CsvWriterTest {
+    @Test
+    void quotesOnlyFieldsThatNeedIt() throws IOException {
+        assertEquals("plain,\"a,b\",\"say \"\"hi\"\"\",\"two\nlines\",,\"cr\r\"\r\n",
+                write("plain", "a,b", "say \"hi\"", "two\nlines", null, "cr\r"));
+    }
+
+    @Test
+    void readerGetsBackWhatWriterWrote() throws IOException {
+        List<String> fields = List.of("plain", "a,b", "say \"hi\"", "two\r\nlines", "",
+                "\"", ",");
+        String csv = write(fields.toArray()) + write("next", "row");
+
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            assertEquals(fields, reader.readRecord());
+            assertEquals(1, reader.getLineNumber());
+            assertEquals(List.of("next", "row"), reader.readRecord());
+            assertEquals(3, reader.getLineNumber());
+            assertNull(reader.readRecord());
+        }
+    }
+
+    @Test
+    void joinListEscapesSeparatorAndEscape() {
+        assertEquals("Smith, John;Doe\\;Jr;C:\\\\cars;",
+                CsvWriter.joinList(Arrays.asList("Smith, John", "Doe;Jr", "C:\\cars", null)));
+        assertEquals("", CsvWriter.joinList(List.of()));
+    }
+
+    @Test
+    void driverListFieldSurvivesCsvQuoting() throws IOException {
+        String drivers = CsvWriter.joinList(List.of("Smith, John", "O\"Neil;Sr", "Ann\nLee"));
+
+        try (CsvReader reader = new CsvReader(new StringReader(write(7, drivers)))) {
+            assertEquals(List.of("7", drivers), reader.readRecord());
+        }
+    }
+
+    private static String write(Object... fields) throws IOException {
+        StringWriter out = new StringWriter();
+        new CsvWriter(out).writeRecord(fields);
+        return out.toString();
+    }
+}
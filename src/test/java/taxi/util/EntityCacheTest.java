@@ -0,0 +1,114 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class EntityCacheTest {
+    private static final long WAIT_SECONDS = 5;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void valueLoadedBeforeInvalidationIsNotCached() throws Exception {
+        EntityCache<Long, String> cache = new EntityCache<>("stale-get", 10, 0);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        CompletableFuture<String> load = CompletableFuture.supplyAsync(() ->
+                cache.get(1L, key -> {
+                    loading.countDown();
+                    await(invalidated);
+                    return "before " + loads.incrementAndGet();
+                }));
+        assertTrue(loading.await(WAIT_SECONDS, TimeUnit.SECONDS));
+        cache.invalidate(1L);
+        invalidated.countDown();
+
+        assertEquals("before 1", load.get(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertNull(cache.getIfPresent(1L));
+        assertEquals("after 2", cache.get(1L, key -> "after " + loads.incrementAndGet()));
+    }
+
+    @Test
+    void valuesLoadedBeforeInvalidateAllAreNotCached() throws Exception {
+        EntityCache<Long, String> cache = new EntityCache<>("stale-get-all", 10, 0);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        CompletableFuture<Map<Long, String>> load = CompletableFuture.supplyAsync(() ->
+                cache.getAll(List.of(1L, 2L), keys -> {
+                    loading.countDown();
+                    await(invalidated);
+                    return load(keys);
+                }));
+        assertTrue(loading.await(WAIT_SECONDS, TimeUnit.SECONDS));
+        cache.invalidateAll();
+        invalidated.countDown();
+
+        assertEquals(2, load.get(WAIT_SECONDS, TimeUnit.SECONDS).size());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void getAllLoadsOnlyMissingKeysInOneCall() {
+        EntityCache<Long, String> cache = new EntityCache<>("get-all", 10, 0);
+        cache.put(1L, "cached");
+        AtomicInteger calls = new AtomicInteger();
+        Map<Long, String> values = cache.getAll(List.of(1L, 2L, 3L), keys -> {
+            calls.incrementAndGet();
+            assertEquals(List.of(2L, 3L), List.copyOf(keys));
+            return load(keys);
+        });
+
+        assertEquals(1, calls.get());
+        assertEquals(Map.of(1L, "cached", 2L, "value 2", 3L, "value 3"), values);
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        EntityCache<Long, String> cache = new EntityCache<>("lru", 2, 0);
+        Function<Long, String> loader = key -> "value " + key;
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+        cache.get(1L, loader);
+        cache.get(3L, loader);
+
+        assertEquals("value 1", cache.getIfPresent(1L));
+        assertNull(cache.getIfPresent(2L));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void expiredEntryIsReloaded() throws Exception {
+        EntityCache<Long, String> cache = new EntityCache<>("ttl", 10, 1);
+        cache.get(1L, key -> "first");
+        Thread.sleep(5);
+
+        assertEquals("second", cache.get(1L, key -> "second"));
+    }
+
+    private static Map<Long, String> load(Collection<Long> keys) {
+        return keys.stream().collect(Collectors.toMap(key -> key, key -> "value " + key));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(WAIT_SECONDS, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out waiting for the test");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class LongHashSetTest {
+    @Test
+    void matchesReferenceUnderRandomChanges() {
+        Random random = new Random(7);
+        LongHashSet set = new LongHashSet();
+        Set<Long> reference = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            long value = 1 + random.nextInt(100);
+            if (random.nextBoolean()) {
+                assertEquals(reference.add(value), set.add(value));
+            } else {
+                assertEquals(reference.remove(value), set.remove(value));
+            }
+            assertEquals(reference.size(), set.size());
+        }
+        for (long value = 1; value <= 100; value++) {
+            assertEquals(reference.contains(value), set.contains(value), "value " + value);
+        }
+    }
+
+    @Test
+    void toArrayHoldsEveryValueOnce() {
+        LongHashSet set = new LongHashSet();
+        for (long value = 1; value <= 50; value++) {
+            set.add(value * 1_000_003);
+        }
+        Set<Long> values = new HashSet<>();
+        for (long value : set.toArray()) {
+            values.add(value);
+        }
+        assertEquals(50, values.size());
+    }
+
+    @Test
+    void zeroIsRejected() {
+        LongHashSet set = new LongHashSet();
+        assertThrows(IllegalArgumentException.class, () -> set.add(0));
+        assertFalse(set.remove(0));
+        assertFalse(set.contains(0));
+    }
+}
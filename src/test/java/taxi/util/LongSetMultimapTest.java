@@ -0,0 +1,97 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the map against {@code java.util} collections under random puts and removes
+ * over a small key space, so probe chains collide, wrap around the table and are
+ * shifted back on every kind of removal.
+ */
+class LongSetMultimapTest {
+    @Test
+    void matchesReferenceUnderRandomChanges() {
+        Random random = new Random(42);
+        LongSetMultimap map = new LongSetMultimap();
+        Map<Long, Set<Long>> reference = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            long key = 1 + random.nextInt(64);
+            long value = 1 + random.nextInt(8);
+            switch (random.nextInt(5)) {
+                case 0:
+                case 1:
+                    assertEquals(reference.computeIfAbsent(key, k -> new HashSet<>()).add(value),
+                            map.put(key, value));
+                    break;
+                case 2:
+                case 3:
+                    assertEquals(remove(reference, key, value), map.remove(key, value));
+                    break;
+                default:
+                    Set<Long> removed = reference.remove(key);
+                    LongHashSet actual = map.removeAll(key);
+                    assertEquals(removed, actual == null ? null : toSet(actual));
+            }
+            if (i % 1_000 == 0) {
+                assertSameContents(reference, map);
+            }
+        }
+        assertSameContents(reference, map);
+    }
+
+    @Test
+    void keyWithoutValuesIsRemoved() {
+        LongSetMultimap map = new LongSetMultimap();
+        map.put(7, 1);
+        map.put(7, 2);
+        map.remove(7, 1);
+        map.remove(7, 2);
+
+        assertNull(map.get(7));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void zeroKeyIsRejected() {
+        LongSetMultimap map = new LongSetMultimap();
+        assertThrows(IllegalArgumentException.class, () -> map.put(0, 1));
+        assertFalse(map.remove(0, 1));
+        assertNull(map.get(0));
+    }
+
+    private static boolean remove(Map<Long, Set<Long>> reference, long key, long value) {
+        Set<Long> values = reference.get(key);
+        if (values == null || !values.remove(value)) {
+            return false;
+        }
+        if (values.isEmpty()) {
+            reference.remove(key);
+        }
+        return true;
+    }
+
+    private static void assertSameContents(Map<Long, Set<Long>> reference, LongSetMultimap map) {
+        assertEquals(reference.size(), map.size());
+        for (long key = 1; key <= 64; key++) {
+            LongHashSet values = map.get(key);
+            assertEquals(reference.get(key), values == null ? null : toSet(values), "key " + key);
+        }
+    }
+
+    private static Set<Long> toSet(LongHashSet values) {
+        Set<Long> set = new HashSet<>();
+        Arrays.stream(values.toArray()).forEach(set::add);
+        assertEquals(values.size(), set.size());
+        return set;
+    }
+}
@@ -0,0 +1,49 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import taxi.model.PageRequest;
+import taxi.testing.Stubs;
+
+class PageRequestUtilTest {
+    @Test
+    void readsCursorSizeAndFilters() {
+        PageRequest request = PageRequestUtil.fromRequest(request(Map.of("size", "50",
+                "after", "40", "manufacturer_id", "3", "name", " Ford ")), "name");
+
+        assertEquals(50, request.getSize());
+        assertEquals(40L, request.getAfterId());
+        assertNull(request.getBeforeId());
+        assertEquals(3L, request.getManufacturerId());
+        assertEquals("Ford", request.getPrefix());
+    }
+
+    @Test
+    void sizeIsClamped() {
+        assertEquals(100, PageRequestUtil.fromRequest(request(Map.of("size", "5000")), "name")
+                .getSize());
+        assertEquals(1, PageRequestUtil.fromRequest(request(Map.of("size", "-1")), "name")
+                .getSize());
+    }
+
+    @Test
+    void malformedNumbersAreIgnored() {
+        PageRequest request = PageRequestUtil.fromRequest(request(Map.of("size", "abc",
+                "before", "x", "after", "12", "manufacturer_id", "9999999999999999999")),
+                "name");
+
+        assertEquals(20, request.getSize());
+        assertNull(request.getBeforeId());
+        assertEquals(12L, request.getAfterId());
+        assertNull(request.getManufacturerId());
+    }
+
+    private HttpServletRequest request(Map<String, String> parameters) {
+        return Stubs.stub(HttpServletRequest.class,
+                Map.of("getParameter", args -> parameters.get(args[0])));
+    }
+}
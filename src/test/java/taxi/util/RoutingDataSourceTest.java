@@ -0,0 +1,119 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.AsyncContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import taxi.testing.Stubs;
+
+/**
+ * Two in-memory H2 databases stand in for a primary and a lagging replica; each
+ * knows its own name, so a query shows where it was routed.
+ */
+class RoutingDataSourceTest {
+    private static final String URL_FORMAT = "jdbc:h2:mem:%s;DB_CLOSE_DELAY=-1";
+    private static RoutingDataSource dataSource;
+
+    @BeforeAll
+    static void createDatabases() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", "sa");
+        properties.setProperty("password", "");
+        PoolConfig config = new PoolConfig();
+        config.setMinSize(0);
+        dataSource = new RoutingDataSource(
+                new ConnectionPool(create("primary"), properties, config),
+                List.of(new ConnectionPool(create("replica"), properties, config)),
+                RoutingDataSource.Strategy.ROUND_ROBIN);
+    }
+
+    @AfterAll
+    static void closeDatabases() {
+        dataSource.close();
+    }
+
+    @AfterEach
+    void endRequest() {
+        RoutingDataSource.endRequest();
+    }
+
+    @Test
+    void bulkheadReadWithoutWriteGoesToReplica() throws Exception {
+        RoutingDataSource.beginRequest(false);
+        assertEquals("replica", readOnBulkhead());
+    }
+
+    @Test
+    void bulkheadReadAfterWriteInRequestGoesToPrimary() throws Exception {
+        RoutingDataSource.beginRequest(false);
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE node SET writes = writes + 1");
+        }
+        assertEquals("primary", readOnBulkhead());
+    }
+
+    @Test
+    void bulkheadReadOfClientPinnedAfterWriteGoesToPrimary() throws Exception {
+        RoutingDataSource.beginRequest(true);
+        assertEquals("primary", readOnBulkhead());
+    }
+
+    private String readOnBulkhead() throws Exception {
+        Map<String, Object> attributes = new ConcurrentHashMap<>();
+        CountDownLatch dispatched = new CountDownLatch(1);
+        Map<String, Stubs.Answer> contextAnswers = new HashMap<>();
+        contextAnswers.put("dispatch", args -> {
+            dispatched.countDown();
+            return null;
+        });
+        AsyncContext context = Stubs.stub(AsyncContext.class, contextAnswers);
+        Map<String, Stubs.Answer> requestAnswers = new HashMap<>();
+        requestAnswers.put("startAsync", args -> context);
+        requestAnswers.put("setAttribute", args -> attributes.put((String) args[0], args[1]));
+        Bulkhead.of("routing").dispatch(Stubs.stub(HttpServletRequest.class, requestAnswers),
+                Stubs.stub(HttpServletResponse.class, Map.of()), "/view.jsp",
+                () -> Map.of("node", readNodeName()));
+        assertTrue(dispatched.await(5, TimeUnit.SECONDS));
+        return (String) attributes.get("node");
+    }
+
+    private static String readNodeName() {
+        try (Connection connection = dataSource.getReadOnlyConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT name FROM node")) {
+            resultSet.next();
+            return resultSet.getString("name");
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String create(String name) throws SQLException {
+        String url = String.format(URL_FORMAT, "routing_" + name);
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+                Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE node (name VARCHAR(16), writes INT)");
+            statement.execute("INSERT INTO node VALUES ('" + name + "', 0)");
+        }
+        return url;
+    }
+}
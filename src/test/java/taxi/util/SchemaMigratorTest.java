@@ -0,0 +1,68 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import taxi.benchmark.EmbeddedDatabase;
+
+class SchemaMigratorTest {
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        EmbeddedDatabase.start(10);
+    }
+
+    @Test
+    void migrationReleasesLock() throws SQLException {
+        assertEquals(0, count("schema_lock"));
+        assertEquals(4, count("schema_version"));
+    }
+
+    @Test
+    void migrationWaitsForLockHeldByAnotherNode() throws Exception {
+        execute("INSERT INTO schema_lock (id) VALUES (1)");
+        CompletableFuture<Integer> migration = CompletableFuture.supplyAsync(() -> {
+            try (Connection connection = connect()) {
+                return SchemaMigrator.migrate(connection, UnaryOperator.identity());
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(700);
+        assertFalse(migration.isDone(), "the migration must wait for the lock");
+
+        execute("DELETE FROM schema_lock");
+        assertEquals(0, migration.get(5, TimeUnit.SECONDS));
+        assertEquals(0, count("schema_lock"));
+    }
+
+    private static long count(String table) throws SQLException {
+        try (Connection connection = connect();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection connection = connect();
+                Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(System.getProperty("taxi.db.url"),
+                System.getProperty("taxi.db.username"), System.getProperty("taxi.db.password"));
+    }
+}
@@ -0,0 +1,35 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SqlScriptsTest {
+    @Test
+    void splitsAtSemicolonsAndDropsBlankStatements() {
+        assertEquals(List.of("CREATE TABLE a (id INT)", "DROP TABLE b"),
+                SqlScripts.split("CREATE TABLE a (id INT);\n;\nDROP TABLE b;\n"));
+    }
+
+    @Test
+    void keepsSemicolonsInQuotes() {
+        String script = "INSERT INTO t VALUES ('a;b', 'it''s;', 'x\\';y');"
+                + "SELECT \"c;d\", `e;f` FROM t";
+        assertEquals(List.of("INSERT INTO t VALUES ('a;b', 'it''s;', 'x\\';y')",
+                "SELECT \"c;d\", `e;f` FROM t"), SqlScripts.split(script));
+    }
+
+    @Test
+    void dropsComments() {
+        String script = "-- first; comment\nSELECT 1; # second; comment\n"
+                + "SELECT /* inline; */ 2;\n/* trailing;\n block */";
+        assertEquals(List.of("SELECT 1", "SELECT   2"), SqlScripts.split(script));
+    }
+
+    @Test
+    void keepsCommentMarkersInQuotes() {
+        assertEquals(List.of("SELECT '--', '#', '/*'"),
+                SqlScripts.split("SELECT '--', '#', '/*';"));
+    }
+}
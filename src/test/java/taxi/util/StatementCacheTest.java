@@ -0,0 +1,121 @@
+package taxi.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StatementCacheTest {
+    private static final String URL = "jdbc:h2:mem:statements;DB_CLOSE_DELAY=-1";
+    private static final String QUERY_A = "SELECT ? + 1";
+    private static final String QUERY_B = "SELECT ? + 2";
+    private static final String QUERY_C = "SELECT ? + 3";
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void createPool() {
+        Properties properties = new Properties();
+        properties.setProperty("user", "sa");
+        properties.setProperty("password", "");
+        PoolConfig config = new PoolConfig();
+        config.setMinSize(0);
+        config.setMaxSize(1);
+        config.setStatementCacheSize(2);
+        pool = new ConnectionPool(URL, properties, config);
+    }
+
+    @AfterEach
+    void closePool() {
+        pool.close();
+    }
+
+    @Test
+    void statementIsReusedAcrossBorrows() throws SQLException {
+        assertEquals(2, queryOnce(QUERY_A, 1));
+        assertEquals(3, queryOnce(QUERY_A, 2));
+
+        assertEquals(1, pool.getStats().getStatementCacheMisses());
+        assertEquals(1, pool.getStats().getStatementCacheHits());
+    }
+
+    @Test
+    void reusedStatementStartsWithoutParametersAndDefaultFetchSize() throws SQLException {
+        int defaultFetchSize;
+        try (Connection connection = pool.getConnection();
+                PreparedStatement statement = connection.prepareStatement(QUERY_A)) {
+            defaultFetchSize = statement.getFetchSize();
+            statement.setFetchSize(defaultFetchSize + 100);
+            statement.setInt(1, 41);
+            statement.executeQuery().close();
+        }
+        try (Connection connection = pool.getConnection();
+                PreparedStatement statement = connection.prepareStatement(QUERY_A)) {
+            assertEquals(1, pool.getStats().getStatementCacheHits());
+            assertEquals(defaultFetchSize, statement.getFetchSize());
+            assertThrows(SQLException.class, statement::executeQuery);
+        }
+    }
+
+    @Test
+    void leastRecentlyUsedStatementIsEvicted() throws SQLException {
+        queryOnce(QUERY_A, 1);
+        queryOnce(QUERY_B, 1);
+        queryOnce(QUERY_A, 1);
+        queryOnce(QUERY_C, 1);
+        long misses = pool.getStats().getStatementCacheMisses();
+
+        queryOnce(QUERY_A, 1);
+        assertEquals(misses, pool.getStats().getStatementCacheMisses());
+        queryOnce(QUERY_B, 1);
+        assertEquals(misses + 1, pool.getStats().getStatementCacheMisses());
+    }
+
+    @Test
+    void statementEvictedWhileInUseIsClosedOnRelease() throws SQLException {
+        try (Connection connection = pool.getConnection()) {
+            PreparedStatement inUse = connection.prepareStatement(QUERY_A);
+            PreparedStatement physical = inUse.unwrap(PreparedStatement.class);
+            connection.prepareStatement(QUERY_B).close();
+            connection.prepareStatement(QUERY_C).close();
+
+            inUse.setInt(1, 1);
+            assertTrue(inUse.executeQuery().next());
+            assertFalse(physical.isClosed());
+            inUse.close();
+            assertTrue(physical.isClosed());
+        }
+    }
+
+    @Test
+    void statementsLeftOpenAreReleasedWithConnection() throws SQLException {
+        PreparedStatement leaked;
+        try (Connection connection = pool.getConnection()) {
+            leaked = connection.prepareStatement(QUERY_A);
+            leaked.setInt(1, 1);
+            leaked.executeQuery();
+        }
+        assertTrue(leaked.isClosed());
+
+        assertEquals(2, queryOnce(QUERY_A, 1));
+        assertEquals(1, pool.getStats().getStatementCacheHits());
+    }
+
+    private int queryOnce(String query, int parameter) throws SQLException {
+        try (Connection connection = pool.getConnection();
+                PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setInt(1, parameter);
+            ResultSet resultSet = statement.executeQuery();
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
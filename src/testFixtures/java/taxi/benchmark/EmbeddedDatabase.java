@@ -0,0 +1,189 @@
+package taxi.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import taxi.util.SchemaMigrator;
+import taxi.util.SqlScripts;
+
+/**
+ * In-memory H2 database in MySQL mode with the schema of init_db.sql and the
+ * migrations on top of it, seeded with a synthetic fleet. {@link #start(int)} points
+ * ConnectionUtil at it, so it has to run before the first DAO call of the JVM.
+ * {@link #start(int, int)} adds identical databases configured as read replicas.
+ */
+public class EmbeddedDatabase {
+    public static final int DRIVERS_PER_CAR = 3;
+    public static final int CARS_PER_MANUFACTURER = 50;
+    private static final String URL_FORMAT = "jdbc:h2:mem:%s;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+            + "CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1";
+    private static final String USERNAME = "sa";
+    private static final String PASSWORD = "";
+    private static final int BATCH_SIZE = 1_000;
+    private static final List<Connection> keepAlive = new ArrayList<>();
+    private static final Pattern DROP_FOREIGN_KEY_INDEX = Pattern.compile(
+            "ALTER TABLE `(\\w+)` DROP INDEX `(car_id|driver_id|FK_manufacturer_id)`;",
+            Pattern.CASE_INSENSITIVE);
+    private static final Map<String, String> FOREIGN_KEYS = Map.of(
+            "car_id", "(`car_id`) REFERENCES `cars` (`id`)",
+            "driver_id", "(`driver_id`) REFERENCES `drivers` (`id`)",
+            "FK_manufacturer_id", "(`manufacturer_id`) REFERENCES `manufacturers` (`id`)");
+
+    private EmbeddedDatabase() {
+    }
+
+    /**
+     * Creates the schema and seeds {@code fleetSize} cars. Every car gets
+     * {@value #DRIVERS_PER_CAR} drivers; there are as many drivers as cars, so each
+     * driver also drives {@value #DRIVERS_PER_CAR} cars. Driver n logs in as
+     * {@code driver<n>}.
+     */
+    public static void start(int fleetSize) throws SQLException, IOException {
+        start(fleetSize, 0);
+    }
+
+    /**
+     * Creates the primary and {@code replicas} replicas with the same data and sets
+     * {@code taxi.db.replica.urls}. Writes are not copied to the replicas, so reads
+     * from them show the data as seeded.
+     */
+    public static synchronized void start(int fleetSize, int replicas)
+            throws SQLException, IOException {
+        for (Connection connection : keepAlive) {
+            connection.close();
+        }
+        keepAlive.clear();
+        String url = String.format(URL_FORMAT, "taxi");
+        System.setProperty("taxi.db.url", url);
+        System.setProperty("taxi.db.username", USERNAME);
+        System.setProperty("taxi.db.password", PASSWORD);
+        create(url, fleetSize);
+        StringJoiner replicaUrls = new StringJoiner(",");
+        for (int i = 1; i <= replicas; i++) {
+            String replicaUrl = String.format(URL_FORMAT, "taxi_replica" + i);
+            create(replicaUrl, fleetSize);
+            replicaUrls.add(replicaUrl);
+        }
+        System.setProperty("taxi.db.replica.urls", replicaUrls.toString());
+    }
+
+    private static void create(String url, int fleetSize) throws SQLException, IOException {
+        Connection connection = DriverManager.getConnection(url, USERNAME, PASSWORD);
+        keepAlive.add(connection);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String ddl : SqlScripts.split(schema())) {
+                statement.execute(ddl);
+            }
+        }
+        SchemaMigrator.migrate(connection, EmbeddedDatabase::toH2);
+        seed(connection, fleetSize);
+    }
+
+    private static String schema() throws IOException {
+        try (InputStream in = EmbeddedDatabase.class.getResourceAsStream("/init_db.sql")) {
+            if (in == null) {
+                throw new IOException("init_db.sql is not on the class path");
+            }
+            return toH2(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Strips the MySQL-only parts of a script. H2 doesn't drop an index that backs a
+     * foreign key, so such a drop takes the key down and adds it again, and the key
+     * falls back on another index with the same leading column as it does in MySQL.
+     */
+    private static String toH2(String script) {
+        return DROP_FOREIGN_KEY_INDEX.matcher(script.replaceAll("(?m)^--.*$", ""))
+                .replaceAll(drop -> Matcher.quoteReplacement(String.format(
+                        "ALTER TABLE `%1$s` DROP CONSTRAINT `%2$s`;"
+                        + " DROP INDEX IF EXISTS `%2$s`;"
+                        + " ALTER TABLE `%1$s` ADD CONSTRAINT `%2$s` FOREIGN KEY %3$s;",
+                        drop.group(1), drop.group(2), FOREIGN_KEYS.get(drop.group(2)))))
+                .replaceAll("(?i)CREATE SCHEMA[^;]*;", "")
+                .replaceAll("(?i)USE `taxi`;", "")
+                .replaceAll("(?i)SET NAMES[^;]*;", "")
+                .replaceAll("(?i)CHARACTER SET (= )?utf8( COLLATE (= )?utf8_general_ci)?", "")
+                .replaceAll("(?i)ENGINE = InnoDB[^;]*", "")
+                .replaceAll("(?i)USING BTREE", "")
+                .replaceAll("(?i)bigint\\(0\\)", "bigint")
+                .replaceAll("(?i)bit\\(1\\) NOT NULL DEFAULT b'0'",
+                        "BOOLEAN NOT NULL DEFAULT FALSE");
+    }
+
+    private static void seed(Connection connection, int fleetSize) throws SQLException {
+        int manufacturers = Math.max(1, fleetSize / CARS_PER_MANUFACTURER);
+        connection.setAutoCommit(false);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO manufacturers (id, name, country) VALUES (?, ?, ?)")) {
+            for (int i = 1; i <= manufacturers; i++) {
+                statement.setLong(1, i);
+                statement.setString(2, "Manufacturer" + i);
+                statement.setString(3, "Country" + (i % 20));
+                addBatch(statement, i);
+            }
+            statement.executeBatch();
+        }
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO drivers "
+                + "(id, login, password, name, license_number) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= fleetSize; i++) {
+                statement.setLong(1, i);
+                statement.setString(2, "driver" + i);
+                statement.setString(3, "password" + i);
+                statement.setString(4, "Driver " + i);
+                statement.setString(5, "LN-" + i);
+                addBatch(statement, i);
+            }
+            statement.executeBatch();
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO cars (id, model, manufacturer_id) VALUES (?, ?, ?)")) {
+            for (int i = 1; i <= fleetSize; i++) {
+                statement.setLong(1, i);
+                statement.setString(2, "Model" + (i % 100));
+                statement.setLong(3, (i % manufacturers) + 1);
+                addBatch(statement, i);
+            }
+            statement.executeBatch();
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO cars_drivers (car_id, driver_id) VALUES (?, ?)")) {
+            int rows = 0;
+            for (int car = 1; car <= fleetSize; car++) {
+                for (int offset = 0; offset < Math.min(DRIVERS_PER_CAR, fleetSize); offset++) {
+                    statement.setLong(1, car);
+                    statement.setLong(2, ((car - 1 + offset) % fleetSize) + 1);
+                    addBatch(statement, ++rows);
+                }
+            }
+            statement.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            for (String table : new String[] {"manufacturers", "drivers", "cars"}) {
+                statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH "
+                        + (fleetSize + 1));
+            }
+        }
+    }
+
+    private static void addBatch(PreparedStatement statement, int row) throws SQLException {
+        statement.addBatch();
+        if (row % BATCH_SIZE == 0) {
+            statement.executeBatch();
+        }
+    }
+}